@@ -1,30 +1,44 @@
 package ru.practicum.shareit.booking;
 
+import java.io.InputStream;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerRequestFactories;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         RestTemplateBuilder builder,
+                         ServerRequestFactories requestFactories,
+                         ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactories.forRoute(API_PREFIX))
+                        .build(),
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(requestFactories::forStreaming)
+                        .build(),
+                responseCache.forRoute(API_PREFIX)
         );
     }
 
@@ -32,6 +46,14 @@ public class BookingClient extends BaseClient {
         return post("", userId, requestDto);
     }
 
+    public ResponseEntity<Object> importBookings(Long userId, InputStream in) {
+        return upload("/import", userId, MediaType.APPLICATION_NDJSON, in);
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamBookings(Long userId) {
+        return stream("/stream", userId, MediaType.TEXT_EVENT_STREAM);
+    }
+
     public ResponseEntity<Object> getBooking(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
@@ -41,13 +63,31 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getUserBookings(Long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of("state", state.name());
-        return get("?state={state}", userId, parameters);
+    public ResponseEntity<Object> getUserBookings(Long userId, BookingState state, String cursor, Integer size) {
+        Map<String, Object> parameters = pageParameters(state, cursor, size);
+        return get("?" + toQuery(parameters), userId, parameters);
+    }
+
+    public ResponseEntity<Object> getOwnerBookings(Long userId, BookingState state, String cursor, Integer size) {
+        Map<String, Object> parameters = pageParameters(state, cursor, size);
+        return get("/owner?" + toQuery(parameters), userId, parameters);
+    }
+
+    private Map<String, Object> pageParameters(BookingState state, String cursor, Integer size) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("state", state.name());
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        if (size != null) {
+            parameters.put("size", size);
+        }
+        return parameters;
     }
 
-    public ResponseEntity<Object> getOwnerBookings(Long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of("state", state.name());
-        return get("/owner?state={state}", userId, parameters);
+    private String toQuery(Map<String, Object> parameters) {
+        return parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&"));
     }
 }
\ No newline at end of file
@@ -3,12 +3,17 @@ package ru.practicum.shareit.booking;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.io.InputStream;
+
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
@@ -26,6 +31,26 @@ public class BookingController {
         return bookingClient.createBooking(userId, requestDto);
     }
 
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Object> importBookings(@RequestHeader(USER_ID_HEADER) Long userId, InputStream body) {
+        log.info("Импорт бронирований: id владельца={}", userId);
+        return bookingClient.importBookings(userId, body);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBookings(@RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("Подписка на изменения бронирований: id пользователя={}", userId);
+        ResponseEntity<StreamingResponseBody> events = bookingClient.streamBookings(userId);
+        if (!events.getStatusCode().is2xxSuccessful()) {
+            return events;
+        }
+        return ResponseEntity.status(events.getStatusCode())
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(events.getBody());
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@RequestHeader(USER_ID_HEADER) Long userId,
                                              @PathVariable Long bookingId) {
@@ -45,19 +70,23 @@ public class BookingController {
 
     @GetMapping
     public ResponseEntity<Object> getUserBookings(@RequestHeader(USER_ID_HEADER) Long userId,
-                                              @RequestParam(name = "state", defaultValue = "ALL") String state) {
+                                                  @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size) {
         BookingState bookingState = BookingState.from(state)
                 .orElseThrow(() -> new IllegalArgumentException("Неизвестный статус: " + state));
         log.info("Получение бронирований пользователя: id пользователя={}, статус={}", userId, bookingState);
-        return bookingClient.getUserBookings(userId, bookingState);
+        return bookingClient.getUserBookings(userId, bookingState, cursor, size);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getOwnerBookings(@RequestHeader(USER_ID_HEADER) Long ownerId,
-                                                   @RequestParam(name = "state", defaultValue = "ALL") String state) {
+                                                   @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer size) {
         BookingState bookingState = BookingState.from(state)
                 .orElseThrow(() -> new IllegalArgumentException("Неизвестный статус: " + state));
         log.info("Получение бронирований владельца: id владельца={}, статус={}", ownerId, bookingState);
-        return bookingClient.getOwnerBookings(ownerId, bookingState);
+        return bookingClient.getOwnerBookings(ownerId, bookingState, cursor, size);
     }
 }
\ No newline at end of file
@@ -1,22 +1,48 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public class BaseClient {
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final List<String> PASSTHROUGH_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.LOCATION, HttpHeaders.ETAG, HttpHeaders.RETRY_AFTER, "X-Next-Cursor");
+
     protected final RestTemplate rest;
+    private final RestTemplate streamRest;
+    @Nullable
+    private final ResponseCache.Route cacheRoute;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, rest, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable ResponseCache.Route cacheRoute) {
+        this(rest, rest, cacheRoute);
+    }
+
+    public BaseClient(RestTemplate rest, RestTemplate streamRest, @Nullable ResponseCache.Route cacheRoute) {
         this.rest = rest;
+        this.streamRest = streamRest;
+        this.cacheRoute = cacheRoute;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -79,20 +105,115 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    // Передает тело ответа сервера клиенту по мере поступления, без буферизации и разбора.
+    // Соединение с сервером открывается до ответа клиенту: ошибка сервера (неизвестный пользователь, 503)
+    // отдается клиенту со своим статусом, а не обрывает уже начатый поток
+    protected ResponseEntity<StreamingResponseBody> stream(String path, Long userId, MediaType mediaType) {
+        URI uri = streamRest.getUriTemplateHandler().expand(path);
+        ClientHttpResponse response;
+        try {
+            ClientHttpRequest request = streamRest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            // JSON нужен для тела ошибки
+            request.getHeaders().setAccept(List.of(mediaType, MediaType.APPLICATION_JSON));
+            if (userId != null) {
+                request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+            }
+            response = request.execute();
+        } catch (IOException e) {
+            throw new ResourceAccessException("Сервер недоступен: " + e.getMessage(), e);
+        }
+
+        try {
+            HttpStatusCode status = response.getStatusCode();
+            if (status.is2xxSuccessful()) {
+                return ResponseEntity.status(status)
+                        .contentType(mediaType)
+                        .body(out -> {
+                            try (response) {
+                                InputStream in = response.getBody();
+                                byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+                                int read;
+                                while ((read = in.read(buffer)) != -1) {
+                                    out.write(buffer, 0, read);
+                                    out.flush();
+                                }
+                            }
+                        });
+            }
+            HttpHeaders headers = passthroughHeaders(response.getHeaders());
+            byte[] body;
+            try (response) {
+                body = response.getBody().readAllBytes();
+            }
+            return ResponseEntity.status(status)
+                    .headers(headers)
+                    .body(out -> out.write(body));
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("Сервер недоступен: " + e.getMessage(), e);
+        }
+    }
+
+    // Передает тело запроса клиента серверу по мере чтения, без буферизации в шлюзе
+    protected ResponseEntity<Object> upload(String path, Long userId, MediaType mediaType, InputStream in) {
+        ResponseEntity<Object> response;
+        try {
+            response = streamRest.execute(path, HttpMethod.POST, request -> {
+                request.getHeaders().setContentType(mediaType);
+                request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                if (userId != null) {
+                    request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                }
+                if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+                    streamingRequest.setBody(in::transferTo);
+                } else {
+                    in.transferTo(request.getBody());
+                }
+            }, serverResponse -> prepareGatewayResponse(serverResponse.getStatusCode(), serverResponse.getHeaders(),
+                    serverResponse.getBody().readAllBytes()));
+        } catch (HttpStatusCodeException e) {
+            return prepareGatewayResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+        }
+        if (cacheRoute != null && response != null && response.getStatusCode().is2xxSuccessful()) {
+            cacheRoute.invalidate();
+        }
+        return response;
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (cacheRoute == null) {
+            return exchange(method, path, userId, parameters, body);
+        }
+        if (method == HttpMethod.GET) {
+            String uri = rest.getUriTemplateHandler()
+                    .expand(path, parameters != null ? parameters : Map.of())
+                    .toString();
+            return cacheRoute.get(uri, userId, () -> exchange(method, path, userId, parameters, body));
+        }
+
+        ResponseEntity<Object> response = exchange(method, path, userId, parameters, body);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            cacheRoute.invalidate();
+        }
+        return response;
+    }
+
+    // Тело ответа сервера передается клиенту как есть, байтами: без разбора JSON и повторной сериализации
+    private <T> ResponseEntity<Object> exchange(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
-        ResponseEntity<Object> shareitServerResponse;
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return prepareGatewayResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return prepareGatewayResponse(shareitServerResponse.getStatusCode(), shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody());
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,17 +226,29 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static ResponseEntity<Object> prepareGatewayResponse(HttpStatusCode status,
+                                                                 @Nullable HttpHeaders serverHeaders,
+                                                                 @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status)
+                .headers(passthroughHeaders(serverHeaders));
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
     }
-}
\ No newline at end of file
+
+    private static HttpHeaders passthroughHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            for (String name : PASSTHROUGH_HEADERS) {
+                List<String> values = serverHeaders.get(name);
+                if (values != null) {
+                    headers.put(name, values);
+                }
+            }
+        }
+        return headers;
+    }
+}
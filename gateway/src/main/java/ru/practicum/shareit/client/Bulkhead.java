@@ -0,0 +1,55 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+// Жесткий предел одновременных запросов одного раздела API, чтобы он не занял все соединения с сервером.
+// Не зависит от адаптивного лимита: изоляция разделов сохраняется и при выключенном concurrency-limit.
+// Запросы сверх предела не ждут, а сразу получают 503 с Retry-After.
+@Slf4j
+public class Bulkhead implements ClientHttpRequestInterceptor {
+    private final String route;
+    private final int maxConcurrent;
+    private final Duration retryAfter;
+    private final Semaphore permits;
+    private final Counter rejected;
+
+    public Bulkhead(String route, int maxConcurrent, Duration retryAfter, MeterRegistry meterRegistry) {
+        this.route = route;
+        this.maxConcurrent = maxConcurrent;
+        this.retryAfter = retryAfter;
+        this.permits = new Semaphore(maxConcurrent);
+        Gauge.builder("gateway.bulkhead.inflight", permits, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .tag("route", route)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("gateway.bulkhead.rejected")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            log.warn("Раздел {} занял все {} соединений: {} {}", route, maxConcurrent, request.getMethod(),
+                    request.getURI().getPath());
+            return new RejectedResponse("Сервер перегружен, повторите запрос позже", retryAfter);
+        }
+        try {
+            return execution.execute(request, body);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Автоматический выключатель для одного раздела API. Учитываются последние window-size запросов:
+// если среди них доля ответов 5xx и сбоев соединения или доля медленных ответов превышает порог,
+// выключатель размыкается и на open-duration запросы сразу получают 503, не доходя до сервера.
+// Затем пропускается half-open-calls пробных запросов: если все успешны, выключатель замыкается.
+@Slf4j
+public class CircuitBreaker implements ClientHttpRequestInterceptor {
+    private final String route;
+    private final ServerClientProperties.CircuitBreakerSettings settings;
+    private final MeterRegistry meterRegistry;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter rejected;
+
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int position;
+    private int recordedCalls;
+    private int failureCount;
+    private int slowCount;
+
+    private volatile State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSucceeded;
+
+    public CircuitBreaker(String route, ServerClientProperties.CircuitBreakerSettings settings,
+                          MeterRegistry meterRegistry) {
+        this.route = route;
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+        this.failedCalls = new boolean[settings.getWindowSize()];
+        this.slowCalls = new boolean[settings.getWindowSize()];
+        Gauge.builder("gateway.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("Состояние выключателя: 0 - замкнут, 1 - разомкнут, 2 - пробные запросы")
+                .tag("route", route)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("gateway.circuit.rejected")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        State permittedIn = tryPermit();
+        if (permittedIn == null) {
+            rejected.increment();
+            return new RejectedResponse("Сервер временно недоступен, повторите запрос позже",
+                    settings.getOpenDuration());
+        }
+
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.FAILED;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            if (response instanceof RejectedResponse) {
+                // Отказ по лимиту одновременных запросов ничего не говорит о состоянии сервера
+                outcome = Outcome.IGNORED;
+            } else if (!response.getStatusCode().is5xxServerError()) {
+                outcome = System.nanoTime() - start > settings.getSlowCallThreshold().toNanos()
+                        ? Outcome.SLOW : Outcome.SUCCEEDED;
+            }
+            return response;
+        } finally {
+            record(permittedIn, outcome);
+        }
+    }
+
+    private State tryPermit() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < settings.getOpenDuration().toNanos()) {
+                    return null;
+                }
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenInFlight >= settings.getHalfOpenCalls()) {
+                    return null;
+                }
+                halfOpenInFlight++;
+            }
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(State permittedIn, Outcome outcome) {
+        lock.lock();
+        try {
+            // Запросы, начатые до смены состояния, на новое состояние не влияют
+            if (permittedIn != state) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                halfOpenInFlight--;
+                if (outcome == Outcome.FAILED || outcome == Outcome.SLOW) {
+                    transitionTo(State.OPEN);
+                } else if (outcome == Outcome.SUCCEEDED && ++halfOpenSucceeded >= settings.getHalfOpenCalls()) {
+                    transitionTo(State.CLOSED);
+                }
+            } else if (state == State.CLOSED && outcome != Outcome.IGNORED) {
+                addToWindow(outcome == Outcome.FAILED, outcome == Outcome.SLOW);
+                if (recordedCalls >= settings.getMinimumCalls()
+                        && (failureCount >= settings.getFailureRateThreshold() * recordedCalls
+                        || slowCount >= settings.getSlowCallRateThreshold() * recordedCalls)) {
+                    transitionTo(State.OPEN);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void addToWindow(boolean failed, boolean slow) {
+        if (recordedCalls == failedCalls.length) {
+            failureCount -= failedCalls[position] ? 1 : 0;
+            slowCount -= slowCalls[position] ? 1 : 0;
+        } else {
+            recordedCalls++;
+        }
+        failedCalls[position] = failed;
+        slowCalls[position] = slow;
+        failureCount += failed ? 1 : 0;
+        slowCount += slow ? 1 : 0;
+        position = (position + 1) % failedCalls.length;
+    }
+
+    private void transitionTo(State newState) {
+        log.warn("Выключатель раздела {}: {} -> {} (ошибок {}, медленных {} из {})", route, state, newState,
+                failureCount, slowCount, recordedCalls);
+        Counter.builder("gateway.circuit.transitions")
+                .tag("route", route)
+                .tag("from", state.name())
+                .tag("to", newState.name())
+                .register(meterRegistry)
+                .increment();
+        state = newState;
+        switch (newState) {
+            case OPEN -> openedAt = System.nanoTime();
+            case HALF_OPEN -> {
+                halfOpenInFlight = 0;
+                halfOpenSucceeded = 0;
+            }
+            case CLOSED -> {
+                position = 0;
+                recordedCalls = 0;
+                failureCount = 0;
+                slowCount = 0;
+            }
+        }
+    }
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private enum Outcome {
+        SUCCEEDED,
+        SLOW,
+        FAILED,
+        IGNORED
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Адаптивное ограничение числа одновременных запросов к серверу для одного раздела API (AIMD).
+// Ответ медленнее latency-threshold, 503/504 или сбой соединения уменьшают лимит в backoff-ratio раз,
+// успешный ответ при загрузке не меньше половины лимита увеличивает его на единицу.
+// Запросы сверх лимита не ждут в очереди, а сразу получают 503 с Retry-After.
+@Slf4j
+public class ConcurrencyLimiter implements ClientHttpRequestInterceptor {
+    private final String route;
+    private final ServerClientProperties.ConcurrencyLimit settings;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter rejected;
+    private volatile double limit;
+
+    public ConcurrencyLimiter(String route, ServerClientProperties.ConcurrencyLimit settings,
+                              MeterRegistry meterRegistry) {
+        this.route = route;
+        this.settings = settings;
+        this.limit = Math.min(settings.getInitial(), settings.getMax());
+        Gauge.builder("gateway.concurrency.limit", this, ConcurrencyLimiter::getLimit)
+                .tag("route", route)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", inFlight, AtomicInteger::get)
+                .tag("route", route)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("gateway.concurrency.rejected")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!tryAcquire()) {
+            rejected.increment();
+            log.warn("Превышен лимит одновременных запросов раздела {} ({}): {} {}", route, getLimit(),
+                    request.getMethod(), request.getURI().getPath());
+            return new RejectedResponse("Сервер перегружен, повторите запрос позже", settings.getRetryAfter());
+        }
+
+        long start = System.nanoTime();
+        boolean overloaded = true;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            overloaded = response.getStatusCode().isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE)
+                    || response.getStatusCode().isSameCodeAs(HttpStatus.GATEWAY_TIMEOUT);
+            return response;
+        } finally {
+            release(System.nanoTime() - start, overloaded);
+        }
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void release(long latencyNanos, boolean overloaded) {
+        int current = inFlight.getAndDecrement();
+        lock.lock();
+        try {
+            if (overloaded || latencyNanos > settings.getLatencyThreshold().toNanos()) {
+                limit = Math.max(settings.getMin(), limit * settings.getBackoffRatio());
+            } else if (current * 2 >= limit) {
+                limit = Math.min(settings.getMax(), limit + 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
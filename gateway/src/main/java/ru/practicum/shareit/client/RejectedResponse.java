@@ -0,0 +1,49 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+// Ответ 503, который шлюз формирует сам, не обращаясь к серверу
+class RejectedResponse implements ClientHttpResponse {
+    private final HttpHeaders headers = new HttpHeaders();
+    private final byte[] body;
+
+    RejectedResponse(String message, Duration retryAfter) {
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        body = String.format("{\"status\":503,\"error\":\"Service Unavailable\",\"message\":\"%s\"}", message)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public HttpStatusCode getStatusCode() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+
+    @Override
+    public String getStatusText() {
+        return HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public InputStream getBody() {
+        return new ByteArrayInputStream(body);
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Кэш успешных GET-ответов сервера. Вытеснение W-TinyLFU (Caffeine) с ограничением по объему тел ответов,
+// ключ - раздел API, полный URI запроса и id пользователя. Изменение в разделе увеличивает поколение раздела
+// и зависимых разделов (shareit-server.cache.invalidates): записи прежних поколений больше не отдаются
+// и вытесняются при чтении или по TTL, поэтому запись не перебирает кэш. Одновременные одинаковые GET-запросы,
+// не нашедшие ответа в кэше, объединяются в один запрос к серверу - в том числе для некэшируемых разделов.
+@Slf4j
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache {
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final ResponseCacheProperties properties;
+    private final Cache<Key, CachedResponse> cache;
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final SingleFlight<Flight, ResponseEntity<Object>> flights = new SingleFlight<>();
+    private final Counter coalesced;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((Key key, CachedResponse value) -> value.weight())
+                .expireAfter(new Expiry<Key, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(Key key, CachedResponse value, long currentTime) {
+                        return value.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, CachedResponse value, long currentTime,
+                                                  long currentDuration) {
+                        return value.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, CachedResponse value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.responses");
+        this.coalesced = Counter.builder("gateway.responses.coalesced")
+                .description("Запросы, получившие ответ уже выполняющегося одинакового запроса")
+                .register(meterRegistry);
+        log.info("Кэш ответов сервера: объем {}, TTL {}", properties.getMaxSize(), properties.getTtl());
+    }
+
+    // Кэш раздела API, например "/items"
+    public Route forRoute(String apiPrefix) {
+        String route = apiPrefix.replaceFirst("^/", "");
+        return new Route(route, properties.getTtl().get(route));
+    }
+
+    private AtomicLong generation(String route) {
+        return generations.computeIfAbsent(route, r -> new AtomicLong());
+    }
+
+    public final class Route {
+        private final String name;
+        @Nullable
+        private final Duration ttl;
+
+        private Route(String name, @Nullable Duration ttl) {
+            this.name = name;
+            this.ttl = ttl;
+        }
+
+        public ResponseEntity<Object> get(String uri, @Nullable Long userId,
+                                          Supplier<ResponseEntity<Object>> loader) {
+            Key key = new Key(name, uri, userId);
+            long generation = generation(name).get();
+            if (ttl != null) {
+                CachedResponse cached = cache.getIfPresent(key);
+                if (cached != null && cached.generation() == generation) {
+                    return cached.response();
+                }
+                if (cached != null) {
+                    cache.asMap().remove(key, cached);
+                }
+            }
+
+            // Ответ, полученный во время записи в раздел, мог устареть: такой ответ не кэшируется
+            // и не раздается запросам, пришедшим после записи
+            AtomicBoolean loaded = new AtomicBoolean();
+            ResponseEntity<Object> response = flights.execute(new Flight(key, generation), () -> {
+                loaded.set(true);
+                ResponseEntity<Object> loadedResponse = loader.get();
+                if (ttl != null && loadedResponse.getStatusCode().is2xxSuccessful()
+                        && loadedResponse.getBody() instanceof byte[] body
+                        && generation(name).get() == generation) {
+                    cache.put(key, new CachedResponse(loadedResponse, ENTRY_OVERHEAD + uri.length() + body.length,
+                            ttl, generation));
+                }
+                return loadedResponse;
+            });
+            if (!loaded.get()) {
+                coalesced.increment();
+            }
+            return response;
+        }
+
+        public void invalidate() {
+            Set<String> routes = new HashSet<>();
+            routes.add(name);
+            routes.addAll(properties.getInvalidates().getOrDefault(name, List.of()));
+            routes.forEach(route -> generation(route).incrementAndGet());
+        }
+    }
+
+    private record Key(String route, String uri, @Nullable Long userId) {
+    }
+
+    private record Flight(Key key, long generation) {
+    }
+
+    private record CachedResponse(ResponseEntity<Object> response, int weight, Duration ttl, long generation) {
+    }
+}
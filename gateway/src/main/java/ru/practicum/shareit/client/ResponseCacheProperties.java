@@ -0,0 +1,20 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+    // Время жизни ответов по разделам API; раздел без TTL не кэшируется
+    private Map<String, Duration> ttl = new HashMap<>();
+    // Разделы, кэш которых сбрасывается при изменениях в данном разделе
+    private Map<String, List<String>> invalidates = new HashMap<>();
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server.client")
+public class ServerClientProperties {
+    private Mode mode = Mode.POOLED;
+    private int maxConnections = 200;
+    private int maxStreamConnections = 10000;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    private Duration keepAlive = Duration.ofSeconds(30);
+    // Таймауты чтения для отдельных разделов API: bookings, items, requests, users
+    private Map<String, Duration> readTimeouts = new HashMap<>();
+    // Экземпляры сервера для балансировки; если список пуст, запросы идут на shareit-server.url
+    private List<URI> upstreams = new ArrayList<>();
+    private int ejectAfterFailures = 3;
+    private Duration ejectionTime = Duration.ofSeconds(30);
+    private int maxGetAttempts = 2;
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+    private CircuitBreakerSettings circuitBreaker = new CircuitBreakerSettings();
+    private BulkheadSettings bulkhead = new BulkheadSettings();
+
+    public Duration readTimeoutFor(String route) {
+        return readTimeouts.getOrDefault(route, readTimeout);
+    }
+
+    @Data
+    public static class ConcurrencyLimit {
+        private boolean enabled = true;
+        private int initial = 20;
+        private int min = 4;
+        private int max = 200;
+        private Duration latencyThreshold = Duration.ofSeconds(1);
+        private double backoffRatio = 0.9;
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class BulkheadSettings {
+        // Предел одновременных запросов для отдельных разделов; разделы без предела не ограничиваются
+        private Map<String, Integer> limits = new HashMap<>();
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class CircuitBreakerSettings {
+        private boolean enabled = true;
+        private int windowSize = 50;
+        private int minimumCalls = 20;
+        private double failureRateThreshold = 0.5;
+        private double slowCallRateThreshold = 0.8;
+        private Duration slowCallThreshold = Duration.ofSeconds(2);
+        private Duration openDuration = Duration.ofSeconds(10);
+        private int halfOpenCalls = 5;
+    }
+
+    public enum Mode {
+        POOLED,
+        JDK
+    }
+}
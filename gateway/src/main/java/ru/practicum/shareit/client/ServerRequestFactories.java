@@ -0,0 +1,173 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+// Общие для всех клиентов соединения с сервером. Режим выбирается свойством shareit-server.client.mode:
+// POOLED - пул Apache HttpClient с keep-alive, JDK - java.net.http.HttpClient с неблокирующим вводом-выводом.
+// Потоковые ответы (SSE) идут через отдельный пул без таймаута чтения, чтобы не занимать обычные соединения.
+// Если задан список shareit-server.client.upstreams, запросы распределяются между экземплярами сервера.
+// Каждый раздел API защищен своим выключателем, жестким пределом (bulkhead) и адаптивным лимитом
+// одновременных запросов.
+@Slf4j
+@Component
+@EnableConfigurationProperties(ServerClientProperties.class)
+public class ServerRequestFactories {
+    private static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+    private final ServerClientProperties properties;
+    private CloseableHttpClient pooledClient;
+    private CloseableHttpClient streamClient;
+    private java.net.http.HttpClient jdkClient;
+    private UpstreamBalancer balancer;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public ServerRequestFactories(ServerClientProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        if (properties.getMode() == ServerClientProperties.Mode.JDK) {
+            // Keep-alive JDK-клиента - настройка всей JVM, читается один раз при загрузке клиента,
+            // поэтому задается флагом запуска, а не отсюда
+            String jvmKeepAlive = System.getProperty(KEEP_ALIVE_PROPERTY);
+            if (!String.valueOf(properties.getKeepAlive().toSeconds()).equals(jvmKeepAlive)) {
+                log.warn("В режиме JDK shareit-server.client.keep-alive={} не применяется, действует -D{}={}",
+                        properties.getKeepAlive(), KEEP_ALIVE_PROPERTY, jvmKeepAlive != null ? jvmKeepAlive : "1200");
+            }
+            jdkClient = java.net.http.HttpClient.newBuilder()
+                    .version(java.net.http.HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(properties.getConnectTimeout())
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+        } else {
+            pooledClient = createPooledClient(properties.getMaxConnections());
+            streamClient = createPooledClient(properties.getMaxStreamConnections());
+        }
+        if (!properties.getUpstreams().isEmpty()) {
+            balancer = new UpstreamBalancer(properties);
+        }
+        log.info("Клиент сервера ShareIt: режим {}, таймаут чтения {}", properties.getMode(),
+                properties.getReadTimeout());
+    }
+
+    // Фабрика запросов для раздела API, например "/bookings"
+    public ClientHttpRequestFactory forRoute(String apiPrefix) {
+        String route = apiPrefix.replaceFirst("^/", "");
+        Duration readTimeout = properties.readTimeoutFor(route);
+        ClientHttpRequestFactory factory;
+        if (jdkClient != null) {
+            JdkClientHttpRequestFactory jdkFactory = new JdkClientHttpRequestFactory(jdkClient);
+            jdkFactory.setReadTimeout(readTimeout);
+            factory = jdkFactory;
+        } else {
+            factory = createPooledFactory(pooledClient, Timeout.ofMilliseconds(readTimeout.toMillis()));
+        }
+
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
+        if (properties.getCircuitBreaker().isEnabled()) {
+            interceptors.add(breakers.computeIfAbsent(route, r ->
+                    new CircuitBreaker(r, properties.getCircuitBreaker(), meterRegistry)));
+        }
+        Integer bulkheadLimit = properties.getBulkhead().getLimits().get(route);
+        if (bulkheadLimit != null) {
+            interceptors.add(bulkheads.computeIfAbsent(route, r -> new Bulkhead(r, bulkheadLimit,
+                    properties.getBulkhead().getRetryAfter(), meterRegistry)));
+        }
+        if (properties.getConcurrencyLimit().isEnabled()) {
+            interceptors.add(limiters.computeIfAbsent(route, r ->
+                    new ConcurrencyLimiter(r, properties.getConcurrencyLimit(), meterRegistry)));
+        }
+        return intercepted(factory, interceptors);
+    }
+
+    // Потоковые ответы и загрузки живут долго, поэтому выключатель и лимит одновременных запросов к ним
+    // не применяются. Перехватчики буферизуют тело запроса целиком, так что экземпляр сервера выбирается
+    // без них
+    public ClientHttpRequestFactory forStreaming() {
+        ClientHttpRequestFactory factory = jdkClient != null
+                ? new JdkClientHttpRequestFactory(jdkClient)
+                : createPooledFactory(streamClient, Timeout.DISABLED);
+        return balancer != null ? balancer.routing(factory) : factory;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (jdkClient != null) {
+            jdkClient.close();
+        } else {
+            pooledClient.close(CloseMode.GRACEFUL);
+            streamClient.close(CloseMode.GRACEFUL);
+        }
+    }
+
+    // Выключатель и лимит проверяются до выбора экземпляра сервера, чтобы их отказы не считались сбоями экземпляра
+    private ClientHttpRequestFactory intercepted(ClientHttpRequestFactory factory,
+                                                 List<ClientHttpRequestInterceptor> interceptors) {
+        if (balancer != null) {
+            interceptors.add(balancer);
+        }
+        if (interceptors.isEmpty()) {
+            return factory;
+        }
+        return new InterceptingClientHttpRequestFactory(factory, interceptors);
+    }
+
+    private CloseableHttpClient createPooledClient(int maxConnections) {
+        TimeValue keepAlive = TimeValue.ofMilliseconds(properties.getKeepAlive().toMillis());
+        return HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        // Все запросы идут на один сервер, поэтому лимит на маршрут равен общему
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnections)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(properties.getConnectTimeout().toMillis()))
+                                .setValidateAfterInactivity(TimeValue.ofSeconds(1))
+                                .build())
+                        .build())
+                .setKeepAliveStrategy((response, context) -> keepAlive)
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive)
+                .build();
+    }
+
+    private ClientHttpRequestFactory createPooledFactory(HttpClient client, Timeout responseTimeout) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(properties.getConnectTimeout().toMillis()))
+                .setResponseTimeout(responseTimeout)
+                .build();
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(client);
+        factory.setHttpContextFactory((method, uri) -> {
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(requestConfig);
+            return context;
+        });
+        return factory;
+    }
+}
@@ -0,0 +1,228 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Распределяет запросы между экземплярами сервера: из двух случайных доступных экземпляров выбирается тот,
+// у которого меньше незавершенных запросов. Экземпляр, подряд не ответивший заданное число раз, исключается
+// на время ejection-time. GET-запросы при сбое соединения или 502/503/504 повторяются на другом экземпляре.
+@Slf4j
+public class UpstreamBalancer implements ClientHttpRequestInterceptor {
+    private static final Set<HttpStatusCode> UNAVAILABLE_STATUSES = Set.of(
+            HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.GATEWAY_TIMEOUT);
+
+    private final List<Upstream> upstreams;
+    private final int ejectAfterFailures;
+    private final long ejectionNanos;
+    private final int maxGetAttempts;
+
+    public UpstreamBalancer(ServerClientProperties properties) {
+        this.upstreams = properties.getUpstreams().stream().map(Upstream::new).toList();
+        this.ejectAfterFailures = properties.getEjectAfterFailures();
+        this.ejectionNanos = properties.getEjectionTime().toNanos();
+        this.maxGetAttempts = Math.max(1, properties.getMaxGetAttempts());
+        log.info("Балансировка запросов между экземплярами сервера: {}", properties.getUpstreams());
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        int attempts = request.getMethod() == HttpMethod.GET ? Math.min(maxGetAttempts, upstreams.size()) : 1;
+        Set<Upstream> tried = new HashSet<>();
+        IOException lastFailure = null;
+
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            Upstream upstream = choose(tried);
+            tried.add(upstream);
+            boolean lastAttempt = attempt == attempts;
+
+            upstream.outstanding.incrementAndGet();
+            try {
+                ClientHttpResponse response = execution.execute(upstream.route(request), body);
+                if (!UNAVAILABLE_STATUSES.contains(response.getStatusCode())) {
+                    upstream.succeeded();
+                    return response;
+                }
+                upstream.failed();
+                if (lastAttempt) {
+                    return response;
+                }
+                response.close();
+            } catch (IOException e) {
+                upstream.failed();
+                lastFailure = e;
+                if (lastAttempt) {
+                    throw e;
+                }
+            } finally {
+                upstream.outstanding.decrementAndGet();
+            }
+            log.warn("Экземпляр сервера {} недоступен, повтор запроса {} {}", upstream.base,
+                    request.getMethod(), request.getURI().getPath());
+        }
+        throw lastFailure;
+    }
+
+    // Перехватчик получает тело запроса уже прочитанным в память, поэтому потоковые запросы (загрузки NDJSON,
+    // SSE) маршрутизируются самой фабрикой: экземпляр выбирается при создании запроса, а тело передается
+    // серверу по мере чтения. Повторов на другом экземпляре нет - тело нельзя отправить второй раз
+    public ClientHttpRequestFactory routing(ClientHttpRequestFactory factory) {
+        return (uri, method) -> {
+            Upstream upstream = choose(Set.of());
+            return new RoutedRequest(upstream, factory.createRequest(upstream.route(uri), method));
+        };
+    }
+
+    private Upstream choose(Set<Upstream> tried) {
+        long now = System.nanoTime();
+        List<Upstream> candidates = upstreams.stream()
+                .filter(upstream -> !tried.contains(upstream) && upstream.isAvailable(now))
+                .toList();
+        if (candidates.isEmpty()) {
+            // Все экземпляры исключены - пробуем любой, а не отказываем сразу
+            candidates = upstreams.stream().filter(upstream -> !tried.contains(upstream)).toList();
+        }
+        if (candidates.size() == 1) {
+            return candidates.getFirst();
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Upstream a = candidates.get(first);
+        Upstream b = candidates.get(second);
+        return a.outstanding.get() <= b.outstanding.get() ? a : b;
+    }
+
+    private final class Upstream {
+        private final URI base;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private volatile long ejectedUntil;
+
+        private Upstream(URI base) {
+            this.base = base;
+        }
+
+        private boolean isAvailable(long now) {
+            return failures.get() < ejectAfterFailures || now - ejectedUntil >= 0;
+        }
+
+        private HttpRequest route(HttpRequest request) {
+            URI uri = route(request.getURI());
+            return new HttpRequestWrapper(request) {
+                @Override
+                public URI getURI() {
+                    return uri;
+                }
+            };
+        }
+
+        private URI route(URI uri) {
+            return UriComponentsBuilder.fromUri(uri)
+                    .scheme(base.getScheme())
+                    .host(base.getHost())
+                    .port(base.getPort())
+                    .build(true)
+                    .toUri();
+        }
+
+        private void succeeded() {
+            failures.set(0);
+        }
+
+        private void failed() {
+            if (failures.incrementAndGet() >= ejectAfterFailures) {
+                ejectedUntil = System.nanoTime() + ejectionNanos;
+                log.warn("Экземпляр сервера {} исключен из балансировки на {} мс", base, ejectionNanos / 1_000_000);
+            }
+        }
+    }
+
+    private static final class RoutedRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+        private final Upstream upstream;
+        private final ClientHttpRequest delegate;
+
+        private RoutedRequest(Upstream upstream, ClientHttpRequest delegate) {
+            this.upstream = upstream;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            upstream.outstanding.incrementAndGet();
+            try {
+                ClientHttpResponse response = delegate.execute();
+                if (UNAVAILABLE_STATUSES.contains(response.getStatusCode())) {
+                    upstream.failed();
+                } else {
+                    upstream.succeeded();
+                }
+                return response;
+            } catch (IOException e) {
+                upstream.failed();
+                throw e;
+            } finally {
+                upstream.outstanding.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void setBody(Body body) {
+            if (delegate instanceof StreamingHttpOutputMessage streamingRequest) {
+                streamingRequest.setBody(body);
+                return;
+            }
+            try {
+                body.writeTo(delegate.getBody());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return delegate.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return delegate.getURI();
+        }
+    }
+}
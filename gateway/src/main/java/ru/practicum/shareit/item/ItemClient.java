@@ -3,14 +3,18 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerRequestFactories;
 import ru.practicum.shareit.item.dto.CommentDtoCreate;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.Map;
 
 @Service
@@ -19,12 +23,19 @@ public class ItemClient extends BaseClient {
 
     @Autowired
     public ItemClient(@Value("${shareit-server.url}") String serverUrl,
-                      RestTemplateBuilder builder) {
+                      RestTemplateBuilder builder,
+                      ServerRequestFactories requestFactories,
+                      ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactories.forRoute(API_PREFIX))
+                        .build(),
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(requestFactories::forStreaming)
+                        .build(),
+                responseCache.forRoute(API_PREFIX)
         );
     }
 
@@ -40,6 +51,10 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> importItems(Long userId, InputStream in) {
+        return upload("/import", userId, MediaType.APPLICATION_NDJSON, in);
+    }
+
     public ResponseEntity<Object> updateItem(Long itemId, ItemDto itemDto, Long userId) {
         return patch("/" + itemId, userId, itemDto);
     }
@@ -48,9 +63,19 @@ public class ItemClient extends BaseClient {
         return delete("/" + itemId);
     }
 
-    public ResponseEntity<Object> searchItems(String text) {
-        Map<String, Object> parameters = Map.of("text", text);
-        return get("/search?text={text}", null, parameters);
+    public ResponseEntity<Object> searchItems(String text, int from, int size) {
+        Map<String, Object> parameters = Map.of("text", text, "from", from, "size", size);
+        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+    }
+
+    public ResponseEntity<Object> suggestItems(String prefix, int limit) {
+        Map<String, Object> parameters = Map.of("prefix", prefix, "limit", limit);
+        return get("/suggest?prefix={prefix}&limit={limit}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getItemAvailability(Long itemId, LocalDate from, LocalDate to) {
+        Map<String, Object> parameters = Map.of("from", from, "to", to);
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
     }
 
     public ResponseEntity<Object> createComment(Long itemId, CommentDtoCreate commentDto, Long userId) {
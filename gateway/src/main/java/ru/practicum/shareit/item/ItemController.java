@@ -3,12 +3,19 @@ package ru.practicum.shareit.item;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.shareit.item.dto.CommentDtoCreate;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.InputStream;
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping(path = "/items")
 @RequiredArgsConstructor
@@ -16,6 +23,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 @Validated
 public class ItemController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_SEARCH_WINDOW = 10_000;
 
     private final ItemClient itemClient;
 
@@ -38,6 +46,12 @@ public class ItemController {
         return itemClient.createItem(itemDto, userId);
     }
 
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Object> importItems(InputStream body, @RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("[POST] Импорт предметов владельца с id: {}", userId);
+        return itemClient.importItems(userId, body);
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<Object> updateItem(@RequestBody ItemDto itemDto,
                                              @RequestHeader(USER_ID_HEADER) Long userId,
@@ -53,9 +67,31 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItemsByText(@RequestParam String text) {
-        log.info("[GET] Поиск предметов по тексту: '{}'", text);
-        return itemClient.searchItems(text);
+    public ResponseEntity<Object> searchItemsByText(@RequestParam String text,
+                                                    @RequestParam(defaultValue = "0") int from,
+                                                    @RequestParam(defaultValue = "20") int size) {
+        log.info("[GET] Поиск предметов по тексту: '{}', from: {}, size: {}", text, from, size);
+        if (from < 0 || size <= 0 || from > MAX_SEARCH_WINDOW - size) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("Некорректные параметры страницы: from = %d, size = %d", from, size));
+        }
+        return itemClient.searchItems(text, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItems(@RequestParam String prefix,
+                                               @RequestParam(defaultValue = "10") int limit) {
+        log.info("[GET] Подсказки предметов по префиксу: '{}', limit: {}", prefix, limit);
+        return itemClient.suggestItems(prefix, limit);
+    }
+
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<Object> getItemAvailability(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("[GET] Запрос занятости предмета с id: {} с {} по {}", id, from, to);
+        return itemClient.getItemAvailability(id, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
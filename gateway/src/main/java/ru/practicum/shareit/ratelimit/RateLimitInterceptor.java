@@ -0,0 +1,94 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Ограничивает частоту запросов каждого пользователя (X-Sharer-User-Id, без него - адреса клиента)
+// к каждому разделу. Корзины хранятся в Caffeine: неиспользуемые удаляются через idle-timeout,
+// общее число ограничено max-buckets.
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    private static final String REJECTED_BODY =
+            "{\"status\":429,\"error\":\"Too Many Requests\",\"message\":\"Слишком много запросов, повторите позже\"}";
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+    private final RateLimitProperties properties;
+    private final List<RouteLimit> routes;
+    private final Cache<BucketKey, TokenBucket> buckets;
+
+    public RateLimitInterceptor(RateLimitProperties properties) {
+        this.properties = properties;
+        this.routes = properties.getRoutes().entrySet().stream()
+                .map(entry -> new RouteLimit(entry.getKey(), entry.getValue(), entry.getValue().getPaths()))
+                .toList();
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleTimeout())
+                .maximumSize(properties.getMaxBuckets())
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        RouteLimit route = resolveRoute(path);
+        String userId = request.getHeader(USER_ID_HEADER);
+        String client = userId != null ? userId : "ip:" + request.getRemoteAddr();
+
+        TokenBucket bucket = buckets.get(new BucketKey(route.name(), client),
+                key -> new TokenBucket(route.limit().getCapacity(), route.limit().getRate(), System.nanoTime()));
+        TokenBucket.Result result = bucket.tryConsume(System.nanoTime());
+
+        response.setHeader(LIMIT_HEADER, String.valueOf(bucket.getCapacity()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(result.remaining()));
+        if (result.allowed()) {
+            return true;
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(result.retryAfterNanos() + 999_999_999));
+        log.warn("Превышена частота запросов: раздел {}, клиент {}, {} {}", route.name(), client,
+                request.getMethod(), path);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(REJECTED_BODY);
+        return false;
+    }
+
+    private RouteLimit resolveRoute(String path) {
+        for (RouteLimit route : routes) {
+            if (route.paths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path))) {
+                return route;
+            }
+        }
+        String[] segments = path.split("/", 3);
+        String name = segments.length > 1 ? segments[1] : "";
+        return new RouteLimit(name, properties.getDefaultLimit(), List.of());
+    }
+
+    private record RouteLimit(String name, RateLimitProperties.Limit limit, List<String> paths) {
+    }
+
+    private record BucketKey(String route, String client) {
+    }
+}
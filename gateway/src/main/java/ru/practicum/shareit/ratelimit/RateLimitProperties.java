@@ -0,0 +1,35 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private long maxBuckets = 100_000;
+    private Limit defaultLimit = new Limit();
+    // Разделы с собственными лимитами; запрос относится к первому разделу, один из путей которого ему подходит
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Limit {
+        private int capacity = 50;
+        // Маркеров в секунду
+        private double rate = 20;
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class Route extends Limit {
+        private List<String> paths = new ArrayList<>();
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Корзина маркеров в виде GCRA: вместо числа маркеров хранится теоретическое время прихода следующего запроса.
+// Состояние умещается в один AtomicLong и обновляется одной операцией CAS, без блокировок.
+public class TokenBucket {
+    private final int capacity;
+    private final long emissionNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int capacity, double ratePerSecond, long now) {
+        this.capacity = capacity;
+        this.emissionNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.burstNanos = emissionNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Result tryConsume(long now) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long nextArrival = Math.max(arrival, now) + emissionNanos;
+            long debt = nextArrival - now;
+            if (debt > burstNanos) {
+                return new Result(false, 0, debt - burstNanos);
+            }
+            if (theoreticalArrival.compareAndSet(arrival, nextArrival)) {
+                return new Result(true, (int) ((burstNanos - debt) / emissionNanos), 0);
+            }
+        }
+    }
+
+    public record Result(boolean allowed, int remaining, long retryAfterNanos) {
+    }
+}
@@ -4,24 +4,32 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerRequestFactories;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
     public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl,
-                             RestTemplateBuilder builder) {
+                             RestTemplateBuilder builder,
+                             ServerRequestFactories requestFactories,
+                             ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactories.forRoute(API_PREFIX))
+                        .build(),
+                responseCache.forRoute(API_PREFIX)
         );
     }
 
@@ -33,8 +41,25 @@ public class ItemRequestClient extends BaseClient {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getOtherUsersItemRequests(Long userId) {
-        return get("/all", userId);
+    public ResponseEntity<Object> getOtherUsersItemRequests(Long userId, String cursor, Integer size) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        if (size != null) {
+            parameters.put("size", size);
+        }
+        if (parameters.isEmpty()) {
+            return get("/all", userId);
+        }
+        String query = parameters.keySet().stream()
+                .map(name -> name + "={" + name + "}")
+                .collect(Collectors.joining("&"));
+        return get("/all?" + query, userId, parameters);
+    }
+
+    public ResponseEntity<Object> getUserMatches(Long userId) {
+        return get("/matches", userId);
     }
 
     public ResponseEntity<Object> getItemRequestById(Long userId, Long requestId) {
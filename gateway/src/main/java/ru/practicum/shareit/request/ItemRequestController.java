@@ -33,9 +33,17 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getOtherUsersItemRequests(@RequestHeader(USER_ID_HEADER) Long userId) {
+    public ResponseEntity<Object> getOtherUsersItemRequests(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size) {
         log.info("[GET] Получение списка запросов других пользователей. Пользователь id: {}", userId);
-        return itemRequestClient.getOtherUsersItemRequests(userId);
+        return itemRequestClient.getOtherUsersItemRequests(userId, cursor, size);
+    }
+
+    @GetMapping("/matches")
+    public ResponseEntity<Object> getUserMatches(@RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("[GET] Получение вещей, подошедших к запросам пользователя с ID: {}", userId);
+        return itemRequestClient.getUserMatches(userId);
     }
 
     @GetMapping("/{requestId}")
@@ -2,11 +2,14 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.InputStream;
+
 @RestController
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
@@ -34,6 +37,13 @@ public class UserController {
         return userClient.createUser(userDto);
     }
 
+    // Строки NDJSON проверяет сервер, шлюз передает тело потоком
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Object> importUsers(InputStream body) {
+        log.info("[POST] Импорт пользователей");
+        return userClient.importUsers(body);
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<Object> updateUser(
             @Validated(UserDto.UpdateValidation.class) @RequestBody UserDto userDto,
@@ -4,13 +4,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -98,7 +102,7 @@ class BookingControllerTest {
 
     @Test
     void getUserBookingsValidStateReturnsOk() throws Exception {
-        when(bookingClient.getUserBookings(anyLong(), any()))
+        when(bookingClient.getUserBookings(anyLong(), any(), any(), any()))
                 .thenReturn(ResponseEntity.ok().build());
 
         mvc.perform(get("/bookings?state=ALL")
@@ -106,13 +110,13 @@ class BookingControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
 
-        verify(bookingClient, times(1)).getUserBookings(eq(1L), eq(BookingState.ALL));
+        verify(bookingClient, times(1)).getUserBookings(eq(1L), eq(BookingState.ALL), isNull(), isNull());
     }
 
 
     @Test
     void getOwnerBookingsValidStateReturnsOk() throws Exception {
-        when(bookingClient.getOwnerBookings(anyLong(), any()))
+        when(bookingClient.getOwnerBookings(anyLong(), any(), any(), any()))
                 .thenReturn(ResponseEntity.ok().build());
 
         mvc.perform(get("/bookings/owner?state=FUTURE")
@@ -120,6 +124,55 @@ class BookingControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
 
-        verify(bookingClient, times(1)).getOwnerBookings(eq(1L), eq(BookingState.FUTURE));
+        verify(bookingClient, times(1)).getOwnerBookings(eq(1L), eq(BookingState.FUTURE), isNull(), isNull());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getUserBookingsPassesCursorAndSize() throws Exception {
+        when(bookingClient.getUserBookings(anyLong(), any(), any(), any()))
+                .thenReturn(ResponseEntity.ok().build());
+
+        mvc.perform(get("/bookings?state=ALL&cursor=abc&size=10")
+                        .header(USER_ID_HEADER, 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(bookingClient, times(1)).getUserBookings(eq(1L), eq(BookingState.ALL), eq("abc"), eq(10));
+    }
+
+    @Test
+    void streamBookingsRelaysServerEvents() throws Exception {
+        StreamingResponseBody events = out -> out.write("event:booking\ndata:{\"id\":1}\n\n"
+                .getBytes(StandardCharsets.UTF_8));
+        when(bookingClient.streamBookings(1L)).thenReturn(ResponseEntity.ok(events));
+
+        MvcResult result = mvc.perform(get("/bookings/stream")
+                        .header(USER_ID_HEADER, 1L)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(content().string("event:booking\ndata:{\"id\":1}\n\n"));
+    }
+
+    @Test
+    void streamBookingsReturnsServerErrorStatus() throws Exception {
+        String error = "{\"error\":\"Пользователь не найден\"}";
+        StreamingResponseBody body = out -> out.write(error.getBytes(StandardCharsets.UTF_8));
+        when(bookingClient.streamBookings(99L)).thenReturn(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body));
+
+        MvcResult result = mvc.perform(get("/bookings/stream")
+                        .header(USER_ID_HEADER, 99L)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(error));
+    }
+}
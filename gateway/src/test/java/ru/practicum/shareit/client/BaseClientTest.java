@@ -0,0 +1,172 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+    private static final String BODY = "[{\"id\":1,\"name\":\"Дрель\",\"price\":1.50}]";
+
+    private MockRestServiceServer server;
+    private TestClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate rest = new RestTemplate();
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new TestClient(rest);
+    }
+
+    @Test
+    void getShouldPassServerBodyThroughUnchanged() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Next-Cursor", "next");
+        headers.set(HttpHeaders.CONNECTION, "keep-alive");
+        server.expect(requestTo("/items"))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = client.get("/items", 1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(BODY.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("next", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+        server.verify();
+    }
+
+    @Test
+    void errorShouldKeepStatusBodyAndContentType() {
+        String error = "{\"error\":\"Вещь не найдена\"}";
+        server.expect(requestTo("/items/99"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(error));
+
+        ResponseEntity<Object> response = client.get("/items/99", 1L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(error.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+    }
+
+    @Test
+    void emptyResponseShouldHaveNoBody() {
+        server.expect(requestTo("/items/1")).andRespond(withStatus(HttpStatus.OK));
+
+        ResponseEntity<Object> response = client.delete("/items/1");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertFalse(response.hasBody());
+    }
+
+    @Test
+    void uploadShouldSendBodyAsIsAndReturnServerResult() {
+        String rows = "{\"name\":\"Дрель\"}\n{\"name\":\"Пила\"}\n";
+        String result = "{\"imported\":2,\"failed\":0,\"errors\":[]}";
+        server.expect(requestTo("/items/import"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(rows))
+                .andRespond(withSuccess(result, MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.upload("/items/import", 1L, MediaType.APPLICATION_NDJSON,
+                new ByteArrayInputStream(rows.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(result.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        server.verify();
+    }
+
+    @Test
+    void uploadErrorShouldKeepStatusAndBody() {
+        String error = "{\"message\":\"Пользователь с id = 99 не найден\"}";
+        server.expect(requestTo("/items/import"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(error));
+
+        ResponseEntity<Object> response = client.upload("/items/import", 99L, MediaType.APPLICATION_NDJSON,
+                new ByteArrayInputStream(new byte[0]));
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(error.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    void streamShouldRelayServerBody() throws Exception {
+        String events = "event:booking\ndata:{\"id\":1}\n\n";
+        server.expect(requestTo("/bookings/stream"))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(events, MediaType.TEXT_EVENT_STREAM));
+
+        ResponseEntity<StreamingResponseBody> response = client.stream("/bookings/stream", 1L,
+                MediaType.TEXT_EVENT_STREAM);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(events, out.toString(StandardCharsets.UTF_8));
+        server.verify();
+    }
+
+    @Test
+    void streamErrorShouldBeReturnedBeforeStreaming() throws Exception {
+        String error = "{\"error\":\"Пользователь с id = 99 не найден\"}";
+        server.expect(requestTo("/bookings/stream"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(error));
+
+        ResponseEntity<StreamingResponseBody> response = client.stream("/bookings/stream", 99L,
+                MediaType.TEXT_EVENT_STREAM);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(error, out.toString(StandardCharsets.UTF_8));
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(RestTemplate rest) {
+            super(rest);
+        }
+
+        @Override
+        public ResponseEntity<Object> get(String path, long userId) {
+            return super.get(path, userId);
+        }
+
+        @Override
+        public ResponseEntity<Object> delete(String path) {
+            return super.delete(path);
+        }
+
+        @Override
+        public ResponseEntity<StreamingResponseBody> stream(String path, Long userId, MediaType mediaType) {
+            return super.stream(path, userId, mediaType);
+        }
+
+        @Override
+        public ResponseEntity<Object> upload(String path, Long userId, MediaType mediaType, InputStream in) {
+            return super.upload(path, userId, mediaType, in);
+        }
+    }
+}
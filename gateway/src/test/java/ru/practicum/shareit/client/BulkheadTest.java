@@ -0,0 +1,76 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void requestOverLimitShouldBeRejectedWithRetryAfter() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("bookings", 1, Duration.ofSeconds(2), meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ClientHttpRequestExecution slowExecution = (request, body) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ClientHttpResponse> first = executor.submit(() -> bulkhead.intercept(request(), new byte[0],
+                    slowExecution));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            ClientHttpResponse rejected = bulkhead.intercept(request(), new byte[0], slowExecution);
+            release.countDown();
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+            assertEquals("2", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+            assertEquals(HttpStatus.OK, first.get(5, TimeUnit.SECONDS).getStatusCode());
+        }
+        assertEquals(1.0, meterRegistry.get("gateway.bulkhead.rejected").tag("route", "bookings").counter().count());
+    }
+
+    @Test
+    void failedRequestShouldReleasePermit() throws IOException {
+        Bulkhead bulkhead = new Bulkhead("bookings", 1, Duration.ofSeconds(1), meterRegistry);
+
+        assertThrows(SocketTimeoutException.class, () -> bulkhead.intercept(request(), new byte[0],
+                (request, body) -> {
+                    throw new SocketTimeoutException("Read timed out");
+                }));
+        ClientHttpResponse response = bulkhead.intercept(request(), new byte[0],
+                (request, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(0.0, meterRegistry.get("gateway.bulkhead.inflight").tag("route", "bookings").gauge().value());
+    }
+
+    private static MockClientHttpRequest request() {
+        return new MockClientHttpRequest(HttpMethod.GET, URI.create("http://localhost:9090/bookings"));
+    }
+}
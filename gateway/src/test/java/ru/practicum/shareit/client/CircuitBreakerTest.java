@@ -0,0 +1,124 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger serverCalls = new AtomicInteger();
+
+    @Test
+    void breakerShouldOpenAfterFailuresAndFailFast() throws IOException {
+        CircuitBreaker breaker = new CircuitBreaker("bookings", settings(Duration.ofMinutes(1)), meterRegistry);
+
+        for (int i = 0; i < 10; i++) {
+            breaker.intercept(request(), new byte[0], respond(HttpStatus.INTERNAL_SERVER_ERROR));
+        }
+        ClientHttpResponse response = breaker.intercept(request(), new byte[0], respond(HttpStatus.OK));
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(10, serverCalls.get());
+        assertEquals(1.0, meterRegistry.get("gateway.circuit.transitions").tag("route", "bookings")
+                .tag("to", "OPEN").counter().count());
+        assertEquals(1.0, meterRegistry.get("gateway.circuit.state").tag("route", "bookings").gauge().value());
+    }
+
+    @Test
+    void clientErrorsShouldNotOpenBreaker() throws IOException {
+        CircuitBreaker breaker = new CircuitBreaker("bookings", settings(Duration.ofMinutes(1)), meterRegistry);
+
+        for (int i = 0; i < 20; i++) {
+            breaker.intercept(request(), new byte[0], respond(HttpStatus.NOT_FOUND));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void connectionFailuresShouldOpenBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker("bookings", settings(Duration.ofMinutes(1)), meterRegistry);
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(ConnectException.class, () -> breaker.intercept(request(), new byte[0],
+                    (request, body) -> {
+                        throw new ConnectException("Connection refused");
+                    }));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void limiterRejectionsShouldBeIgnored() throws IOException {
+        CircuitBreaker breaker = new CircuitBreaker("bookings", settings(Duration.ofMinutes(1)), meterRegistry);
+
+        for (int i = 0; i < 20; i++) {
+            breaker.intercept(request(), new byte[0],
+                    (request, body) -> new RejectedResponse("Сервер перегружен", Duration.ofSeconds(1)));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void breakerShouldCloseAfterSuccessfulTrialCalls() throws IOException {
+        CircuitBreaker breaker = new CircuitBreaker("bookings", settings(Duration.ZERO), meterRegistry);
+        for (int i = 0; i < 10; i++) {
+            breaker.intercept(request(), new byte[0], respond(HttpStatus.SERVICE_UNAVAILABLE));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        breaker.intercept(request(), new byte[0], respond(HttpStatus.OK));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.intercept(request(), new byte[0], respond(HttpStatus.OK));
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void failedTrialCallShouldReopenBreaker() throws IOException {
+        CircuitBreaker breaker = new CircuitBreaker("bookings", settings(Duration.ZERO), meterRegistry);
+        for (int i = 0; i < 10; i++) {
+            breaker.intercept(request(), new byte[0], respond(HttpStatus.SERVICE_UNAVAILABLE));
+        }
+
+        breaker.intercept(request(), new byte[0], respond(HttpStatus.BAD_GATEWAY));
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private ClientHttpRequestExecution respond(HttpStatus status) {
+        return (request, body) -> {
+            serverCalls.incrementAndGet();
+            return new MockClientHttpResponse(new byte[0], status);
+        };
+    }
+
+    private static ServerClientProperties.CircuitBreakerSettings settings(Duration openDuration) {
+        ServerClientProperties.CircuitBreakerSettings settings = new ServerClientProperties.CircuitBreakerSettings();
+        settings.setWindowSize(10);
+        settings.setMinimumCalls(10);
+        settings.setHalfOpenCalls(2);
+        settings.setOpenDuration(openDuration);
+        return settings;
+    }
+
+    private static MockClientHttpRequest request() {
+        return new MockClientHttpRequest(HttpMethod.GET, URI.create("http://localhost:9090/bookings/1"));
+    }
+}
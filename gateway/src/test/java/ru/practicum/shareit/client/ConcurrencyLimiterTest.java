@@ -0,0 +1,125 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void requestOverLimitShouldBeRejectedWithRetryAfter() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("items", settings(2, Duration.ofMinutes(1)),
+                meterRegistry);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ClientHttpRequestExecution slowExecution = (request, body) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ClientHttpResponse> first = executor.submit(() -> limiter.intercept(request(), new byte[0],
+                    slowExecution));
+            Future<ClientHttpResponse> second = executor.submit(() -> limiter.intercept(request(), new byte[0],
+                    slowExecution));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            ClientHttpResponse rejected = limiter.intercept(request(), new byte[0], slowExecution);
+            release.countDown();
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+            assertEquals("1", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+            assertEquals(HttpStatus.OK, first.get(5, TimeUnit.SECONDS).getStatusCode());
+            assertEquals(HttpStatus.OK, second.get(5, TimeUnit.SECONDS).getStatusCode());
+        }
+        assertEquals(1.0, meterRegistry.get("gateway.concurrency.rejected").tag("route", "items").counter().count());
+    }
+
+    @Test
+    void slowResponsesShouldDecreaseLimit() throws IOException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("items", settings(20, Duration.ZERO), meterRegistry);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.intercept(request(), new byte[0], (request, body) -> {
+                sleep();
+                return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+            });
+        }
+
+        assertTrue(limiter.getLimit() < 20);
+        assertEquals(limiter.getLimit(),
+                meterRegistry.get("gateway.concurrency.limit").tag("route", "items").gauge().value());
+    }
+
+    @Test
+    void failuresShouldNotDecreaseLimitBelowMinimum() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("items", settings(10, Duration.ofMinutes(1)),
+                meterRegistry);
+
+        for (int i = 0; i < 50; i++) {
+            assertThrows(SocketTimeoutException.class, () -> limiter.intercept(request(), new byte[0],
+                    (request, body) -> {
+                        throw new SocketTimeoutException("Read timed out");
+                    }));
+        }
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void fastResponsesShouldIncreaseLimitOnlyUnderLoad() throws IOException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("items", settings(2, Duration.ofMinutes(1)),
+                meterRegistry);
+
+        for (int i = 0; i < 300; i++) {
+            limiter.intercept(request(), new byte[0],
+                    (request, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+        }
+
+        // При последовательных запросах загрузка равна единице: лимит растет, пока она не меньше его половины
+        assertEquals(3, limiter.getLimit());
+    }
+
+    private static ServerClientProperties.ConcurrencyLimit settings(int initial, Duration latencyThreshold) {
+        ServerClientProperties.ConcurrencyLimit settings = new ServerClientProperties.ConcurrencyLimit();
+        settings.setInitial(initial);
+        settings.setLatencyThreshold(latencyThreshold);
+        return settings;
+    }
+
+    private static MockClientHttpRequest request() {
+        return new MockClientHttpRequest(HttpMethod.GET, URI.create("http://localhost:9090/items/search?text=drill"));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
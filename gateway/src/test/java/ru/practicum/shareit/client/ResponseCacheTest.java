@@ -0,0 +1,167 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ResponseCacheTest {
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setTtl(Map.of("items", Duration.ofMinutes(1), "requests", Duration.ofMinutes(1)));
+        properties.setInvalidates(Map.of("bookings", List.of("items")));
+        meterRegistry = new SimpleMeterRegistry();
+        responseCache = new ResponseCache(properties, meterRegistry);
+    }
+
+    @Test
+    void getShouldBeServedFromCacheAndKeyedByUser() {
+        ResponseCache.Route items = responseCache.forRoute("/items");
+        AtomicInteger loads = new AtomicInteger();
+
+        items.get("/items/1", 1L, () -> load(loads));
+        items.get("/items/1", 1L, () -> load(loads));
+        items.get("/items/1", 2L, () -> load(loads));
+
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "gateway.responses")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void errorResponsesShouldNotBeCached() {
+        ResponseCache.Route items = responseCache.forRoute("/items");
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            items.get("/items/99", 1L, () -> {
+                loads.incrementAndGet();
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new byte[]{1});
+            });
+        }
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void routeWithoutTtlShouldNotBeCached() {
+        ResponseCache.Route users = responseCache.forRoute("/users");
+        AtomicInteger loads = new AtomicInteger();
+
+        users.get("/users/1", null, () -> load(loads));
+        users.get("/users/1", null, () -> load(loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateShouldDropRouteAndDependentRoutesOnly() {
+        ResponseCache.Route items = responseCache.forRoute("/items");
+        ResponseCache.Route requests = responseCache.forRoute("/requests");
+        AtomicInteger itemLoads = new AtomicInteger();
+        AtomicInteger requestLoads = new AtomicInteger();
+        items.get("/items/1", 1L, () -> load(itemLoads));
+        requests.get("/requests", 1L, () -> load(requestLoads));
+
+        responseCache.forRoute("/bookings").invalidate();
+        items.get("/items/1", 1L, () -> load(itemLoads));
+        requests.get("/requests", 1L, () -> load(requestLoads));
+
+        assertEquals(2, itemLoads.get());
+        assertEquals(1, requestLoads.get());
+    }
+
+    @Test
+    void invalidateShouldNotScanCachedEntries() {
+        ResponseCache.Route items = responseCache.forRoute("/items");
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 100; i++) {
+            items.get("/items/" + i, 1L, () -> load(loads));
+        }
+
+        items.invalidate();
+
+        // Устаревшие записи остаются в кэше до чтения или истечения TTL, но не отдаются
+        assertEquals(100.0, meterRegistry.get("cache.size").tag("cache", "gateway.responses").gauge().value());
+        items.get("/items/1", 1L, () -> load(loads));
+        assertEquals(101, loads.get());
+        assertEquals(100.0, meterRegistry.get("cache.size").tag("cache", "gateway.responses").gauge().value());
+    }
+
+    @Test
+    void responseLoadedDuringWriteShouldNotBeCached() {
+        ResponseCache.Route items = responseCache.forRoute("/items");
+        AtomicInteger loads = new AtomicInteger();
+
+        items.get("/items/1", 1L, () -> {
+            items.invalidate();
+            return load(loads);
+        });
+        items.get("/items/1", 1L, () -> load(loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void clientWriteShouldInvalidateCachedReads() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://server/items"));
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+        server.expect(times(1), requestTo("http://server/items/search?text=drill"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        server.expect(method(HttpMethod.PATCH))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        server.expect(times(1), requestTo("http://server/items/search?text=drill"))
+                .andRespond(withStatus(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body("[{}]"));
+        TestClient client = new TestClient(rest, responseCache.forRoute("/items"));
+
+        client.search("drill");
+        client.search("drill");
+        client.update();
+        ResponseEntity<Object> response = client.search("drill");
+
+        assertArrayEquals("[{}]".getBytes(), (byte[]) response.getBody());
+        server.verify();
+    }
+
+    private static ResponseEntity<Object> load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return ResponseEntity.ok(new byte[]{'[', ']'});
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(RestTemplate rest, ResponseCache.Route cacheRoute) {
+            super(rest, cacheRoute);
+        }
+
+        ResponseEntity<Object> search(String text) {
+            return get("/search?text={text}", null, Map.of("text", text));
+        }
+
+        ResponseEntity<Object> update() {
+            return patch("/1", 1L, Map.of("name", "Дрель"));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    private static final int CALLERS = 50;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallsShouldShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> singleFlight.execute("/items/1", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "item";
+            })));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("/items/1", () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })));
+            }
+            // Даем ожидающим вызовам дойти до общего запроса
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("item", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void failedLoadShouldBeRethrownAndNotRemembered() {
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("/items/1", () -> {
+            throw new IllegalStateException("Сервер недоступен");
+        }));
+
+        assertEquals("item", singleFlight.execute("/items/1", () -> "item"));
+    }
+
+    @Test
+    void differentKeysShouldLoadSeparately() {
+        assertEquals("first", singleFlight.execute("/items/1", () -> "first"));
+        assertEquals("second", singleFlight.execute("/items/2", () -> "second"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamBalancerTest {
+    private static final URI FIRST = URI.create("http://server-1:9090");
+    private static final URI SECOND = URI.create("http://server-2:9090");
+
+    private final List<String> calledHosts = new ArrayList<>();
+
+    @Test
+    void getShouldBeRetriedOnAnotherUpstreamAndFailingOneEjected() throws IOException {
+        UpstreamBalancer balancer = new UpstreamBalancer(properties(1));
+        ClientHttpRequestExecution execution = (request, body) -> {
+            calledHosts.add(request.getURI().getHost());
+            HttpStatus status = "server-1".equals(request.getURI().getHost())
+                    ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK;
+            return new MockClientHttpResponse(new byte[0], status);
+        };
+
+        for (int i = 0; i < 20; i++) {
+            ClientHttpResponse response = balancer.intercept(request(HttpMethod.GET), new byte[0], execution);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+        }
+
+        assertTrue(calledHosts.stream().filter("server-1"::equals).count() <= 1);
+    }
+
+    @Test
+    void getShouldBeRetriedAfterConnectionFailure() throws IOException {
+        UpstreamBalancer balancer = new UpstreamBalancer(properties(3));
+        ClientHttpRequestExecution execution = (request, body) -> {
+            calledHosts.add(request.getURI().getHost());
+            if ("server-2".equals(request.getURI().getHost())) {
+                throw new ConnectException("Connection refused");
+            }
+            return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        };
+
+        for (int i = 0; i < 10; i++) {
+            ClientHttpResponse response = balancer.intercept(request(HttpMethod.GET), new byte[0], execution);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+        }
+    }
+
+    @Test
+    void postShouldNotBeRetried() throws IOException {
+        UpstreamBalancer balancer = new UpstreamBalancer(properties(3));
+        ClientHttpRequestExecution execution = (request, body) -> {
+            calledHosts.add(request.getURI().getHost());
+            return new MockClientHttpResponse(new byte[0], HttpStatus.SERVICE_UNAVAILABLE);
+        };
+
+        ClientHttpResponse response = balancer.intercept(request(HttpMethod.POST), new byte[0], execution);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(1, calledHosts.size());
+    }
+
+    @Test
+    void requestShouldKeepPathAndQuery() throws IOException {
+        UpstreamBalancer balancer = new UpstreamBalancer(properties(3));
+        List<URI> uris = new ArrayList<>();
+
+        balancer.intercept(request(HttpMethod.GET), new byte[0], (request, body) -> {
+            uris.add(request.getURI());
+            return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        });
+
+        assertEquals("/items/search", uris.getFirst().getPath());
+        assertEquals("text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C", uris.getFirst().getRawQuery());
+        assertEquals(9090, uris.getFirst().getPort());
+    }
+
+    @Test
+    void routingFactoryShouldStreamBodyToChosenUpstreamAndEjectFailingOne() throws IOException {
+        UpstreamBalancer balancer = new UpstreamBalancer(properties(1));
+        List<MockClientHttpRequest> sent = new ArrayList<>();
+        ClientHttpRequestFactory factory = balancer.routing((uri, method) -> {
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            HttpStatus status = "server-1".equals(uri.getHost()) ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK;
+            request.setResponse(new MockClientHttpResponse(new byte[0], status));
+            sent.add(request);
+            return request;
+        });
+
+        for (int i = 0; i < 20; i++) {
+            ClientHttpRequest request = factory.createRequest(URI.create("http://localhost:9090/items/import"),
+                    HttpMethod.POST);
+            ((StreamingHttpOutputMessage) request).setBody(out -> out.write("{}".getBytes(StandardCharsets.UTF_8)));
+            request.execute();
+        }
+
+        assertEquals("/items/import", sent.getFirst().getURI().getPath());
+        assertEquals("{}", sent.getFirst().getBodyAsString());
+        assertTrue(sent.stream().filter(request -> "server-1".equals(request.getURI().getHost())).count() <= 1);
+    }
+
+    private static ServerClientProperties properties(int ejectAfterFailures) {
+        ServerClientProperties properties = new ServerClientProperties();
+        properties.setUpstreams(List.of(FIRST, SECOND));
+        properties.setEjectAfterFailures(ejectAfterFailures);
+        properties.setEjectionTime(Duration.ofMinutes(1));
+        return properties;
+    }
+
+    private static MockClientHttpRequest request(HttpMethod method) {
+        return new MockClientHttpRequest(method,
+                URI.create("http://localhost:9090/items/search?text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C"));
+    }
+}
@@ -13,12 +13,15 @@ import ru.practicum.shareit.item.dto.CommentDtoCreate;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -142,7 +145,7 @@ class ItemControllerTest {
 
     @Test
     void searchItemsByTextReturnsListOfItems() throws Exception {
-        when(itemClient.searchItems("test"))
+        when(itemClient.searchItems("test", 0, 20))
                 .thenReturn(ResponseEntity.ok(List.of(testItem)));
 
         mvc.perform(get("/items/search?text=test")
@@ -152,7 +155,58 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].id", is(testItem.getId()), Long.class))
                 .andExpect(jsonPath("$[0].name", is(testItem.getName())));
 
-        verify(itemClient, times(1)).searchItems("test");
+        verify(itemClient, times(1)).searchItems("test", 0, 20);
+    }
+
+    @Test
+    void searchItemsByTextPassesPage() throws Exception {
+        when(itemClient.searchItems("test", 20, 10))
+                .thenReturn(ResponseEntity.ok(List.of()));
+
+        mvc.perform(get("/items/search?text=test&from=20&size=10")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        verify(itemClient, times(1)).searchItems("test", 20, 10);
+    }
+
+    @Test
+    void searchItemsByTextRejectsPageBeyondWindow() throws Exception {
+        mvc.perform(get("/items/search?text=test&from=" + Integer.MAX_VALUE + "&size=10")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/items/search?text=test&from=9995&size=10")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).searchItems(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getItemAvailabilityReturnsSlots() throws Exception {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        LocalDate to = LocalDate.of(2030, 1, 10);
+        when(itemClient.getItemAvailability(1L, from, to))
+                .thenReturn(ResponseEntity.ok(List.of()));
+
+        mvc.perform(get("/items/1/availability?from=2030-01-01&to=2030-01-10")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(itemClient, times(1)).getItemAvailability(1L, from, to);
+    }
+
+    @Test
+    void suggestItemsUsesDefaultLimit() throws Exception {
+        when(itemClient.suggestItems("дре", 10))
+                .thenReturn(ResponseEntity.ok(List.of()));
+
+        mvc.perform(get("/items/suggest?prefix=дре")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(itemClient, times(1)).suggestItems("дре", 10);
     }
 
     @Test
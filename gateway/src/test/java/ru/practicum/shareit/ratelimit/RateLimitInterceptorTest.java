@@ -0,0 +1,53 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemController;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ItemController.class, properties = {
+        "shareit.rate-limit.routes.search.paths=/items/search",
+        "shareit.rate-limit.routes.search.capacity=2",
+        "shareit.rate-limit.routes.search.rate=0.01"
+})
+class RateLimitInterceptorTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private ItemClient itemClient;
+
+    @Test
+    void requestsOverLimitShouldBeRejectedPerUser() throws Exception {
+        when(itemClient.searchItems(anyString(), anyInt(), anyInt())).thenReturn(ResponseEntity.ok().build());
+
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(get("/items/search").param("text", "дрель").header(USER_ID_HEADER, 7L))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("X-RateLimit-Limit", "2"))
+                    .andExpect(header().string("X-RateLimit-Remaining", String.valueOf(1 - i)));
+        }
+
+        mvc.perform(get("/items/search").param("text", "дрель").header(USER_ID_HEADER, 7L))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status").value(429));
+
+        mvc.perform(get("/items/search").param("text", "дрель").header(USER_ID_HEADER, 8L))
+                .andExpect(status().isOk());
+
+        verify(itemClient, times(3)).searchItems(anyString(), anyInt(), anyInt());
+    }
+}
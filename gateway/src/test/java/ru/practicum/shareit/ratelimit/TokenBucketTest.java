@@ -0,0 +1,64 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void burstUpToCapacityShouldBeAllowed() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertEquals(2, bucket.tryConsume(0).remaining());
+        assertEquals(1, bucket.tryConsume(0).remaining());
+        assertEquals(0, bucket.tryConsume(0).remaining());
+
+        TokenBucket.Result rejected = bucket.tryConsume(0);
+        assertFalse(rejected.allowed());
+        assertEquals(SECOND, rejected.retryAfterNanos());
+    }
+
+    @Test
+    void tokensShouldRefillAtRate() {
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+        assertFalse(bucket.tryConsume(0).allowed());
+
+        assertTrue(bucket.tryConsume(SECOND / 2).allowed());
+        assertFalse(bucket.tryConsume(SECOND / 2).allowed());
+    }
+
+    @Test
+    void idleBucketShouldNotAccumulateMoreThanCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 10, 0);
+
+        assertEquals(1, bucket.tryConsume(60 * SECOND).remaining());
+        assertEquals(0, bucket.tryConsume(60 * SECOND).remaining());
+        assertFalse(bucket.tryConsume(60 * SECOND).allowed());
+    }
+
+    @Test
+    void concurrentConsumersShouldNotExceedCapacity() {
+        TokenBucket bucket = new TokenBucket(100, 0.001, System.nanoTime());
+        AtomicInteger allowed = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 1000; i++) {
+                executor.submit(() -> {
+                    if (bucket.tryConsume(System.nanoTime()).allowed()) {
+                        allowed.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        assertEquals(100, allowed.get());
+    }
+}
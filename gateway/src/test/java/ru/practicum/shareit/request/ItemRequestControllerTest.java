@@ -86,7 +86,7 @@ class ItemRequestControllerTest {
 
     @Test
     void getOtherUsersItemRequestsReturnsOk() throws Exception {
-        when(itemRequestClient.getOtherUsersItemRequests(1L))
+        when(itemRequestClient.getOtherUsersItemRequests(1L, null, null))
                 .thenReturn(ResponseEntity.ok().build());
 
         mvc.perform(get("/requests/all")
@@ -94,7 +94,36 @@ class ItemRequestControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
 
-        verify(itemRequestClient, times(1)).getOtherUsersItemRequests(1L);
+        verify(itemRequestClient, times(1)).getOtherUsersItemRequests(1L, null, null);
+    }
+
+    @Test
+    void getUserMatchesReturnsOk() throws Exception {
+        when(itemRequestClient.getUserMatches(1L))
+                .thenReturn(ResponseEntity.ok().build());
+
+        mvc.perform(get("/requests/matches")
+                        .header(USER_ID_HEADER, 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(itemRequestClient, times(1)).getUserMatches(1L);
+    }
+
+    @Test
+    void getOtherUsersItemRequestsPassesCursorAndSize() throws Exception {
+        when(itemRequestClient.getOtherUsersItemRequests(1L, "abc", 10))
+                .thenReturn(ResponseEntity.ok().header("X-Next-Cursor", "def").build());
+
+        mvc.perform(get("/requests/all")
+                        .header(USER_ID_HEADER, 1L)
+                        .param("cursor", "abc")
+                        .param("size", "10")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"));
+
+        verify(itemRequestClient, times(1)).getOtherUsersItemRequests(1L, "abc", 10);
     }
 
     @Test
@@ -2,8 +2,12 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.model.BookingRequest;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -16,6 +20,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     private final BookingService bookingService;
 
@@ -26,6 +31,12 @@ public class BookingController {
         return bookingService.createBooking(bookingRequest, userId);
     }
 
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBookings(@RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("Подписка на изменения бронирований пользователя с id {}", userId);
+        return bookingService.subscribe(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBooking(@PathVariable Long bookingId, @RequestHeader(USER_ID_HEADER) Long userId) {
         log.info("Запрос на получение информации о бронировании");
@@ -40,16 +51,28 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getUserBookings(@RequestHeader(USER_ID_HEADER) Long userId,
-                                            @RequestParam(defaultValue = "ALL") BookingState state) {
+    public ResponseEntity<List<BookingDto>> getUserBookings(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                            @RequestParam(defaultValue = "ALL") BookingState state,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size) {
         log.info("Запрос на получение всех бронирований пользователя с id {} со статусом {}.", userId, state);
-        return bookingService.getUserBookings(userId, state);
+        return toResponse(bookingService.getUserBookings(userId, state, cursor, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getOwnerBookings(@RequestHeader(USER_ID_HEADER) Long ownerId,
-            @RequestParam(defaultValue = "ALL") BookingState state) {
+    public ResponseEntity<List<BookingDto>> getOwnerBookings(@RequestHeader(USER_ID_HEADER) Long ownerId,
+                                                             @RequestParam(defaultValue = "ALL") BookingState state,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer size) {
         log.info("Запрос на получение всех бронирований владельца с id {} со статусом {}.", ownerId, state);
-        return bookingService.getOwnerBookings(ownerId, state);
+        return toResponse(bookingService.getOwnerBookings(ownerId, state, cursor, size));
+    }
+
+    private ResponseEntity<List<BookingDto>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
\ No newline at end of file
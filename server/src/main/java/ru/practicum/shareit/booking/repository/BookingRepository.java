@@ -1,14 +1,29 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.model.Booking;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerIdOrderByStartDesc(Long userId);
+    @Query("SELECT DISTINCT b.item.id FROM Booking b WHERE b.booker.id = :bookerId")
+    List<Long> findBookedItemIds(@Param("bookerId") Long bookerId);
+
+    @Query("""
+             SELECT b FROM Booking b
+             WHERE b.booker.id = :userId
+             AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+             ORDER BY b.start DESC, b.id DESC
+             """)
+    List<Booking> findAllBookingsByUser(@Param("userId") Long userId,
+                                        @Param("cursorStart") LocalDateTime cursorStart,
+                                        @Param("cursorId") Long cursorId,
+                                        Limit limit);
 
     @Query("""
              SELECT b FROM Booking b
@@ -16,41 +31,61 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
              AND b.start <= CURRENT_TIMESTAMP
              AND b.end >= CURRENT_TIMESTAMP
              AND b.status = APPROVED
-             ORDER BY b.start DESC
+             AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+             ORDER BY b.start DESC, b.id DESC
              """)
-    List<Booking> findCurrentBookingsByUser(@Param("userId") Long userId);
+    List<Booking> findCurrentBookingsByUser(@Param("userId") Long userId,
+                                            @Param("cursorStart") LocalDateTime cursorStart,
+                                            @Param("cursorId") Long cursorId,
+                                            Limit limit);
 
     @Query("""
              SELECT b FROM Booking b
              WHERE b.booker.id = :userId
              AND b.status = WAITING
-             ORDER BY b.start DESC
+             AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+             ORDER BY b.start DESC, b.id DESC
              """)
-    List<Booking> findWaitingBookingsByUser(@Param("userId") Long userId);
+    List<Booking> findWaitingBookingsByUser(@Param("userId") Long userId,
+                                            @Param("cursorStart") LocalDateTime cursorStart,
+                                            @Param("cursorId") Long cursorId,
+                                            Limit limit);
 
     @Query("""
              SELECT b FROM Booking b
              WHERE b.booker.id = :userId
              AND b.end < CURRENT_TIMESTAMP
-             ORDER BY b.start DESC
+             AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+             ORDER BY b.start DESC, b.id DESC
              """)
-    List<Booking> findPastBookingsByUser(@Param("userId") Long userId);
+    List<Booking> findPastBookingsByUser(@Param("userId") Long userId,
+                                         @Param("cursorStart") LocalDateTime cursorStart,
+                                         @Param("cursorId") Long cursorId,
+                                         Limit limit);
 
     @Query("""
              SELECT b FROM Booking b
              WHERE b.booker.id = :userId
              AND b.status = REJECTED
-             ORDER BY b.start DESC
+             AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+             ORDER BY b.start DESC, b.id DESC
              """)
-    List<Booking> findRejectedBookingsByUser(@Param("userId") Long userId);
+    List<Booking> findRejectedBookingsByUser(@Param("userId") Long userId,
+                                             @Param("cursorStart") LocalDateTime cursorStart,
+                                             @Param("cursorId") Long cursorId,
+                                             Limit limit);
 
     @Query("""
              SELECT b FROM Booking b
              WHERE b.booker.id = :userId
              AND b.start > CURRENT_TIMESTAMP
-             ORDER BY b.start DESC
+             AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+             ORDER BY b.start DESC, b.id DESC
              """)
-    List<Booking> findFutureBookingsByUser(@Param("userId") Long userId);
+    List<Booking> findFutureBookingsByUser(@Param("userId") Long userId,
+                                           @Param("cursorStart") LocalDateTime cursorStart,
+                                           @Param("cursorId") Long cursorId,
+                                           Limit limit);
 
     @Query("""
              SELECT b FROM Booking b
@@ -72,45 +107,148 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
              """)
     Booking findNextBooking(@Param("itemId") Long itemId);
 
-    @Query("SELECT b FROM Booking b " +
-            "JOIN b.item i " +
-            "WHERE i.owner.id = :ownerId " +
-            "AND b.start <= CURRENT_TIMESTAMP " +
-            "AND b.end >= CURRENT_TIMESTAMP " +
-            "ORDER BY b.start DESC")
-    List<Booking> findCurrentBookingsByOwner(@Param("ownerId") Long ownerId);
-
-    @Query("SELECT b FROM Booking b " +
-            "JOIN b.item i " +
-            "WHERE i.owner.id = :ownerId " +
-            "AND b.status = 'WAITING' " +
-            "ORDER BY b.start DESC")
-    List<Booking> findWaitingBookingsByOwner(@Param("ownerId") Long ownerId);
-
-    @Query("SELECT b FROM Booking b " +
-            "JOIN b.item i " +
-            "WHERE i.owner.id = :ownerId " +
-            "AND b.end < CURRENT_TIMESTAMP " +
-            "ORDER BY b.start DESC")
-    List<Booking> findPastBookingsByOwner(@Param("ownerId") Long ownerId);
-
-    @Query("SELECT b FROM Booking b " +
-            "JOIN b.item i " +
-            "WHERE i.owner.id = :ownerId " +
-            "AND b.status = 'REJECTED' " +
-            "ORDER BY b.start DESC")
-    List<Booking> findRejectedBookingsByOwner(@Param("ownerId") Long ownerId);
-
-    @Query("SELECT b FROM Booking b " +
-            "JOIN b.item i " +
-            "WHERE i.owner.id = :ownerId " +
-            "AND b.start > CURRENT_TIMESTAMP " +
-            "ORDER BY b.start DESC")
-    List<Booking> findFutureBookingsByOwner(@Param("ownerId") Long ownerId);
-
-    @Query("SELECT b FROM Booking b " +
-            "JOIN b.item i " +
-            "WHERE i.owner.id = :ownerId " +
-            "ORDER BY b.start DESC")
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(@Param("ownerId") Long ownerId);
+    // Действующие брони вещи не пересекаются, поэтому с периодом [start, end) может пересечься только
+    // последняя из начавшихся раньше end. Это одна запись из индекса по (item_id, start_date)
+    @Query("""
+             SELECT b FROM Booking b
+             WHERE b.item.id = :itemId
+             AND b.status IN (WAITING, APPROVED)
+             AND b.start < :end
+             ORDER BY b.start DESC, b.id DESC
+             LIMIT 1
+             """)
+    Booking findLastActiveBookingStartingBefore(@Param("itemId") Long itemId, @Param("end") LocalDateTime end);
+
+    @Query("""
+             SELECT b FROM Booking b
+             WHERE b.item.id = :itemId
+             AND b.status IN (WAITING, APPROVED)
+             AND b.end > :from
+             """)
+    List<Booking> findActiveBookingsByItem(@Param("itemId") Long itemId, @Param("from") LocalDateTime from);
+
+    @Query("""
+             SELECT b FROM Booking b
+             WHERE b.item.id IN :itemIds
+             AND b.status IN (WAITING, APPROVED)
+             AND b.start < :end
+             AND b.end > :start
+             """)
+    List<Booking> findOverlappingBookings(@Param("itemIds") Collection<Long> itemIds,
+                                          @Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end);
+
+    @Query("""
+             SELECT MIN(b.end) FROM Booking b
+             WHERE b.item.id = :itemId
+             AND b.status = APPROVED
+             AND b.end > CURRENT_TIMESTAMP
+             """)
+    LocalDateTime findNearestApprovedEnd(@Param("itemId") Long itemId);
+
+    @Query("""
+             SELECT b FROM Booking b
+             JOIN FETCH b.item
+             JOIN FETCH b.booker
+             WHERE b.item.id IN :itemIds
+             AND b.status = APPROVED
+             AND b.end <= CURRENT_TIMESTAMP
+             AND b.end = (SELECT MAX(l.end) FROM Booking l
+                          WHERE l.item.id = b.item.id
+                          AND l.status = APPROVED
+                          AND l.end <= CURRENT_TIMESTAMP)
+             """)
+    List<Booking> findLastBookings(@Param("itemIds") List<Long> itemIds);
+
+    @Query("""
+             SELECT b FROM Booking b
+             JOIN FETCH b.item
+             JOIN FETCH b.booker
+             WHERE b.item.id IN :itemIds
+             AND b.status = APPROVED
+             AND b.start > CURRENT_TIMESTAMP
+             AND b.end = (SELECT MAX(n.end) FROM Booking n
+                          WHERE n.item.id = b.item.id
+                          AND n.status = APPROVED
+                          AND n.start > CURRENT_TIMESTAMP)
+             """)
+    List<Booking> findNextBookings(@Param("itemIds") List<Long> itemIds);
+
+    @Query("""
+             SELECT b FROM Booking b
+             JOIN b.item i
+             WHERE i.owner.id = :ownerId
+             AND b.start <= CURRENT_TIMESTAMP
+             AND b.end >= CURRENT_TIMESTAMP
+             AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+             ORDER BY b.start DESC, b.id DESC
+             """)
+    List<Booking> findCurrentBookingsByOwner(@Param("ownerId") Long ownerId,
+                                             @Param("cursorStart") LocalDateTime cursorStart,
+                                             @Param("cursorId") Long cursorId,
+                                             Limit limit);
+
+    @Query("""
+             SELECT b FROM Booking b
+             JOIN b.item i
+             WHERE i.owner.id = :ownerId
+             AND b.status = WAITING
+             AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+             ORDER BY b.start DESC, b.id DESC
+             """)
+    List<Booking> findWaitingBookingsByOwner(@Param("ownerId") Long ownerId,
+                                             @Param("cursorStart") LocalDateTime cursorStart,
+                                             @Param("cursorId") Long cursorId,
+                                             Limit limit);
+
+    @Query("""
+             SELECT b FROM Booking b
+             JOIN b.item i
+             WHERE i.owner.id = :ownerId
+             AND b.end < CURRENT_TIMESTAMP
+             AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+             ORDER BY b.start DESC, b.id DESC
+             """)
+    List<Booking> findPastBookingsByOwner(@Param("ownerId") Long ownerId,
+                                          @Param("cursorStart") LocalDateTime cursorStart,
+                                          @Param("cursorId") Long cursorId,
+                                          Limit limit);
+
+    @Query("""
+             SELECT b FROM Booking b
+             JOIN b.item i
+             WHERE i.owner.id = :ownerId
+             AND b.status = REJECTED
+             AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+             ORDER BY b.start DESC, b.id DESC
+             """)
+    List<Booking> findRejectedBookingsByOwner(@Param("ownerId") Long ownerId,
+                                              @Param("cursorStart") LocalDateTime cursorStart,
+                                              @Param("cursorId") Long cursorId,
+                                              Limit limit);
+
+    @Query("""
+             SELECT b FROM Booking b
+             JOIN b.item i
+             WHERE i.owner.id = :ownerId
+             AND b.start > CURRENT_TIMESTAMP
+             AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+             ORDER BY b.start DESC, b.id DESC
+             """)
+    List<Booking> findFutureBookingsByOwner(@Param("ownerId") Long ownerId,
+                                            @Param("cursorStart") LocalDateTime cursorStart,
+                                            @Param("cursorId") Long cursorId,
+                                            Limit limit);
+
+    @Query("""
+             SELECT b FROM Booking b
+             JOIN b.item i
+             WHERE i.owner.id = :ownerId
+             AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))
+             ORDER BY b.start DESC, b.id DESC
+             """)
+    List<Booking> findAllBookingsByOwner(@Param("ownerId") Long ownerId,
+                                         @Param("cursorStart") LocalDateTime cursorStart,
+                                         @Param("cursorId") Long cursorId,
+                                         Limit limit);
 }
\ No newline at end of file
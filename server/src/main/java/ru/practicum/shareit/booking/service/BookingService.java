@@ -1,11 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.model.BookingRequest;
 import ru.practicum.shareit.booking.model.BookingState;
 
-import java.util.List;
-
 public interface BookingService {
         BookingDto createBooking(BookingRequest bookingRequest, Long userId);
 
@@ -13,7 +13,9 @@ public interface BookingService {
 
         BookingDto getBookingById(Long bookingId, Long userId);
 
-        List<BookingDto> getUserBookings(Long userId, BookingState state);
+        BookingPageDto getUserBookings(Long userId, BookingState state, String cursor, Integer size);
+
+        BookingPageDto getOwnerBookings(Long ownerId, BookingState state, String cursor, Integer size);
 
-        List<BookingDto> getOwnerBookings(Long ownerId, BookingState state);
+        SseEmitter subscribe(Long userId);
 }
\ No newline at end of file
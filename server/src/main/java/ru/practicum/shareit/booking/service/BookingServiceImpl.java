@@ -2,21 +2,29 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingRequest;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.stream.BookingEventHub;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
+import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,19 +34,24 @@ import java.util.List;
 @RequiredArgsConstructor
 @Transactional
 public class BookingServiceImpl implements BookingService {
+
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final ItemRepository itemRepository;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemAvailabilityService itemAvailabilityService;
+    private final BookingEventHub bookingEventHub;
     private final BookingMapper bookingMapper;
+    private final UserMapper userMapper;
 
     @Override
     public BookingDto createBooking(BookingRequest bookingRequest, Long userId) {
         Long itemId = bookingRequest.getItemId();
-        Item item = findItemOrThrow(itemId);
+        Item item = findItemForUpdateOrThrow(itemId);
         User owner = item.getOwner();
-        User booker = findUserOrThrow(userId);
+        User booker = userMapper.toUser(userService.getUserById(userId));
 
-        if (owner.equals(booker)) {
+        if (owner.getId().equals(booker.getId())) {
             throw new ValidationException("Владелец не может бронировать свою вещь ");
         }
         if (!item.getAvailable()) {
@@ -53,19 +66,27 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException(String.format("Некорректные даты бронирования. Начало: {} Конец: {}", start, end));
         }
 
+        Booking previous = bookingRepository.findLastActiveBookingStartingBefore(itemId, end);
+        if (previous != null && previous.getEnd().isAfter(start)) {
+            throw new ValidationException("Вещь уже забронирована на указанный период");
+        }
+
         Booking booking = bookingMapper.toBooking(bookingRequest);
         booking.setItem(item);
         booking.setBooker(booker);
         booking.setStatus(BookingStatus.WAITING);
 
         Booking createdBooking = bookingRepository.save(booking);
-        return bookingMapper.toBookingDto(createdBooking);
+        itemAvailabilityService.onBookingCreated(itemId, start, end);
+        BookingDto createdBookingDto = bookingMapper.toBookingDto(createdBooking);
+        bookingEventHub.publish(createdBookingDto, owner.getId());
+        return createdBookingDto;
     }
 
     @Override
     @Transactional(readOnly = true)
     public BookingDto getBookingById(Long bookingId, Long userId) {
-        findUserOrThrow(userId);
+        userService.getUserById(userId);
         Booking booking = findBookingOrThrow(bookingId);
         User owner = booking.getItem().getOwner();
         User booker = booking.getBooker();
@@ -77,6 +98,14 @@ public class BookingServiceImpl implements BookingService {
         return bookingMapper.toBookingDto(booking);
     }
 
+    // Пользователь проверяется до открытия потока: неизвестный id получает 404, а не пустую подписку
+    @Override
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(Long userId) {
+        userService.getUserById(userId);
+        return bookingEventHub.subscribe(userId);
+    }
+
     @Override
     public BookingDto approveBooking(Long bookingId, Long ownerId, boolean approved) {
         Booking booking = findBookingOrThrow(bookingId);
@@ -85,73 +114,93 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Подтверждать бронирование может только владелец вещи");
         }
 
-        findUserOrThrow(ownerId);
+        userService.getUserById(ownerId);
+
+        // Отклоненное бронирование уже освободило даты, и их могли занять: повторное решение
+        // нарушило бы непересечение активных бронирований, на котором держится проверка в createBooking
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            throw new ValidationException("Решение по бронированию уже принято");
+        }
 
         if (approved) {
             booking.setStatus(BookingStatus.APPROVED);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
+            itemAvailabilityService.onBookingReleased(booking.getItem().getId());
         }
 
         Booking approvedBooking = bookingRepository.save(booking);
+        itemBookingSummaryService.refresh(approvedBooking.getItem().getId());
         log.info("Статус бронирования изменен: {}", approvedBooking);
-        return bookingMapper.toBookingDto(approvedBooking);
+        BookingDto approvedBookingDto = bookingMapper.toBookingDto(approvedBooking);
+        bookingEventHub.publish(approvedBookingDto, ownerId);
+        return approvedBookingDto;
     }
 
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> getUserBookings(Long userId, BookingState state) {
-        findUserOrThrow(userId);
+    public BookingPageDto getUserBookings(Long userId, BookingState state, String cursor, Integer size) {
+        userService.getUserById(userId);
+
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        LocalDateTime start = position.position();
+        Long id = position.id();
+        Limit limit = KeysetPage.limit(size);
 
         List<Booking> userBookings = switch (state) {
-            case CURRENT -> bookingRepository.findCurrentBookingsByUser(userId);
-            case WAITING -> bookingRepository.findWaitingBookingsByUser(userId);
-            case PAST -> bookingRepository.findPastBookingsByUser(userId);
-            case REJECTED -> bookingRepository.findRejectedBookingsByUser(userId);
-            case FUTURE -> bookingRepository.findFutureBookingsByUser(userId);
-            default -> bookingRepository.findByBookerIdOrderByStartDesc(userId);
+            case CURRENT -> bookingRepository.findCurrentBookingsByUser(userId, start, id, limit);
+            case WAITING -> bookingRepository.findWaitingBookingsByUser(userId, start, id, limit);
+            case PAST -> bookingRepository.findPastBookingsByUser(userId, start, id, limit);
+            case REJECTED -> bookingRepository.findRejectedBookingsByUser(userId, start, id, limit);
+            case FUTURE -> bookingRepository.findFutureBookingsByUser(userId, start, id, limit);
+            default -> bookingRepository.findAllBookingsByUser(userId, start, id, limit);
         };
 
-        return userBookings.stream()
-                .map(bookingMapper::toBookingDto)
-                .toList();
+        return toPage(userBookings, size);
     }
 
-      @Override
-      @Transactional(readOnly = true)
-      public List<BookingDto> getOwnerBookings(Long ownerId, BookingState state) {
-          findUserOrThrow(ownerId);
-          List<Item> userItem = itemRepository.findAllByOwnerId(ownerId);
-
-          if (userItem.isEmpty()) {
-              throw  new NotFoundException(String.format("Предметы пользователя с id = %d не найдены", ownerId));
-          }
-
-          List<Booking> userBookings = switch (state) {
-              case CURRENT -> bookingRepository.findCurrentBookingsByOwner(ownerId);
-              case WAITING -> bookingRepository.findWaitingBookingsByOwner(ownerId);
-              case PAST -> bookingRepository.findPastBookingsByOwner(ownerId);
-              case REJECTED -> bookingRepository.findRejectedBookingsByOwner(ownerId);
-              case FUTURE -> bookingRepository.findFutureBookingsByOwner(ownerId);
-              default -> bookingRepository.findAllByItemOwnerIdOrderByStartDesc(ownerId);
-          };
-
-          return userBookings.stream()
-                  .map(bookingMapper::toBookingDto)
-                  .toList();
-      }
-
-    private User findUserOrThrow(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.error("Пользователь с id {} не найден", userId);
-                    return new NotFoundException(String.format("Пользователь с id = %d не найден", userId));
-                });
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPageDto getOwnerBookings(Long ownerId, BookingState state, String cursor, Integer size) {
+        userService.getUserById(ownerId);
+
+        if (!itemRepository.existsByOwnerId(ownerId)) {
+            throw new NotFoundException(String.format("Предметы пользователя с id = %d не найдены", ownerId));
+        }
+
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        LocalDateTime start = position.position();
+        Long id = position.id();
+        Limit limit = KeysetPage.limit(size);
+
+        List<Booking> ownerBookings = switch (state) {
+            case CURRENT -> bookingRepository.findCurrentBookingsByOwner(ownerId, start, id, limit);
+            case WAITING -> bookingRepository.findWaitingBookingsByOwner(ownerId, start, id, limit);
+            case PAST -> bookingRepository.findPastBookingsByOwner(ownerId, start, id, limit);
+            case REJECTED -> bookingRepository.findRejectedBookingsByOwner(ownerId, start, id, limit);
+            case FUTURE -> bookingRepository.findFutureBookingsByOwner(ownerId, start, id, limit);
+            default -> bookingRepository.findAllBookingsByOwner(ownerId, start, id, limit);
+        };
+
+        return toPage(ownerBookings, size);
+    }
+
+    private BookingPageDto toPage(List<Booking> bookings, Integer size) {
+        KeysetPage<Booking> page = KeysetPage.of(bookings, size,
+                booking -> new KeysetCursor(booking.getStart(), booking.getId()));
+
+        return BookingPageDto.builder()
+                .bookings(page.content().stream()
+                        .map(bookingMapper::toBookingDto)
+                        .toList())
+                .nextCursor(page.nextCursor())
+                .build();
     }
 
-    private Item findItemOrThrow(Long itemId) {
-        return itemRepository.findById(itemId)
+    // Блокирует строку вещи, чтобы параллельные бронирования одной вещи проверялись на пересечение по очереди
+    private Item findItemForUpdateOrThrow(Long itemId) {
+        return itemRepository.findByIdForUpdate(itemId)
                 .orElseThrow(() -> {
                     log.error("Предмет с id {} не найден", itemId);
                     return new NotFoundException(String.format("Предмет с id = %d не найден", itemId));
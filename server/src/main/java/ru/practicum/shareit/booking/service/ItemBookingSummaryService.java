@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ItemBookingSummaryService {
+    void initialize(Collection<Long> itemIds);
+
+    void refresh(Long itemId);
+
+    Map<Long, ItemBookingSummary> getSummaries(List<Long> itemIds);
+
+    int refreshStale();
+}
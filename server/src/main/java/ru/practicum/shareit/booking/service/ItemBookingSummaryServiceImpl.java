@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ItemBookingSummaryServiceImpl implements ItemBookingSummaryService {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+
+    // У новой вещи нет подтвержденных бронирований, поэтому пустая сводка верна и не требует пересчета.
+    // Без строки сводки каждое чтение вещи уходило бы в запасные запросы по бронированиям.
+    // persist вместо save: id задан заранее, и save выполнил бы лишний SELECT на каждую вещь
+    @Override
+    public void initialize(Collection<Long> itemIds) {
+        itemIds.forEach(itemId -> entityManager.persist(ItemBookingSummary.builder()
+                .itemId(itemId)
+                .build()));
+    }
+
+    @Override
+    public void refresh(Long itemId) {
+        Booking lastBooking = bookingRepository.findLastBooking(itemId);
+        Booking nextBooking = bookingRepository.findNextBooking(itemId);
+        LocalDateTime nearestEnd = bookingRepository.findNearestApprovedEnd(itemId);
+
+        ItemBookingSummary summary = summarize(itemId, lastBooking, nextBooking);
+        summary.setRefreshAt(earliest(summary.getNextStart(), nearestEnd));
+        summaryRepository.save(summary);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, ItemBookingSummary> getSummaries(List<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllByItemIds(itemIds).stream()
+                .filter(summary -> summary.getRefreshAt() == null || summary.getRefreshAt().isAfter(now))
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, summary -> summary,
+                        (first, second) -> first, HashMap::new));
+
+        List<Long> missingIds = itemIds.stream()
+                .filter(itemId -> !summaries.containsKey(itemId))
+                .toList();
+
+        if (!missingIds.isEmpty()) {
+            Map<Long, Booking> lastBookings = groupByItem(bookingRepository.findLastBookings(missingIds));
+            Map<Long, Booking> nextBookings = groupByItem(bookingRepository.findNextBookings(missingIds));
+            missingIds.forEach(itemId -> summaries.put(itemId,
+                    summarize(itemId, lastBookings.get(itemId), nextBookings.get(itemId))));
+        }
+
+        return summaries;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.sweep-interval:60000}")
+    public int refreshStale() {
+        List<Long> staleItemIds = summaryRepository.findStaleItemIds(LocalDateTime.now());
+        staleItemIds.forEach(this::refresh);
+
+        if (!staleItemIds.isEmpty()) {
+            log.info("Пересчитаны сводки бронирований для {} предметов", staleItemIds.size());
+        }
+        return staleItemIds.size();
+    }
+
+    private ItemBookingSummary summarize(Long itemId, Booking lastBooking, Booking nextBooking) {
+        ItemBookingSummary.ItemBookingSummaryBuilder builder = ItemBookingSummary.builder()
+                .itemId(itemId)
+                .lastBooking(lastBooking)
+                .nextBooking(nextBooking);
+
+        if (lastBooking != null) {
+            builder.lastStart(lastBooking.getStart()).lastEnd(lastBooking.getEnd());
+        }
+        if (nextBooking != null) {
+            builder.nextStart(nextBooking.getStart()).nextEnd(nextBooking.getEnd());
+        }
+        return builder.build();
+    }
+
+    private Map<Long, Booking> groupByItem(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), booking -> booking,
+                        (first, second) -> first));
+    }
+
+    private LocalDateTime earliest(LocalDateTime first, LocalDateTime second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return first.isBefore(second) ? first : second;
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking.stream;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Раздает изменения статусов бронирований подписчикам SSE. Открытые соединения не держат потоков,
+// отправка идет на виртуальных потоках, поэтому медленный клиент не тормозит остальных и транзакцию.
+@Slf4j
+@Component
+public class BookingEventHub {
+    private static final String EVENT_NAME = "booking";
+
+    private final long timeout;
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final ConcurrentHashMap<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    public BookingEventHub(@Value("${shareit.booking-stream.timeout:1800000}") long timeout) {
+        this.timeout = timeout;
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        // Добавление внутри compute: иначе unsubscribe последнего подписчика мог бы удалить набор
+        // между его получением и добавлением, и новый подписчик остался бы в наборе вне карты
+        subscribers.compute(userId, (key, emitters) -> {
+            Set<SseEmitter> userEmitters = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            userEmitters.add(emitter);
+            return userEmitters;
+        });
+
+        emitter.onCompletion(() -> unsubscribe(userId, emitter));
+        emitter.onTimeout(() -> unsubscribe(userId, emitter));
+        emitter.onError(error -> unsubscribe(userId, emitter));
+        log.debug("Пользователь с id {} подписался на события бронирований", userId);
+        return emitter;
+    }
+
+    // Событие уходит букеру и владельцу вещи только после фиксации транзакции
+    public void publish(BookingDto booking, Long ownerId) {
+        afterCommit(() -> {
+            send(booking.getBooker().getId(), booking);
+            if (!ownerId.equals(booking.getBooker().getId())) {
+                send(ownerId, booking);
+            }
+        });
+    }
+
+    // Комментарий раз в интервал не дает прокси закрыть простаивающее соединение и выявляет отвалившихся клиентов
+    @Scheduled(fixedDelayString = "${shareit.booking-stream.heartbeat:30000}")
+    public void heartbeat() {
+        subscribers.forEach((userId, emitters) -> emitters.forEach(emitter -> sender.execute(() -> {
+            try {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+                unsubscribe(userId, emitter);
+            }
+        })));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        subscribers.clear();
+        sender.shutdown();
+    }
+
+    private void send(Long userId, BookingDto booking) {
+        Set<SseEmitter> emitters = subscribers.get(userId);
+        if (emitters == null) {
+            return;
+        }
+        emitters.forEach(emitter -> sender.execute(() -> {
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(booking.getId() + ":" + booking.getStatus())
+                        .name(EVENT_NAME)
+                        .data(booking, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Не удалось отправить событие пользователю с id {}: {}", userId, e.getMessage());
+                emitter.completeWithError(e);
+                unsubscribe(userId, emitter);
+            }
+        }));
+    }
+
+    private void unsubscribe(Long userId, SseEmitter emitter) {
+        subscribers.computeIfPresent(userId, (key, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.bulk.dto.ImportResultDto;
+import ru.practicum.shareit.bulk.service.BulkImportService;
+
+import java.io.InputStream;
+
+// Тело читается из потока запроса по мере импорта, а не целиком через @RequestBody
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class BulkImportController {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final BulkImportService bulkImportService;
+
+    @PostMapping(path = "/users/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportResultDto importUsers(InputStream body) {
+        log.info("[POST] Импорт пользователей");
+        return bulkImportService.importUsers(body);
+    }
+
+    @PostMapping(path = "/items/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportResultDto importItems(InputStream body, @RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("[POST] Импорт предметов владельца c id: {}", userId);
+        return bulkImportService.importItems(body, userId);
+    }
+
+    @PostMapping(path = "/bookings/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportResultDto importBookings(InputStream body, @RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("[POST] Импорт бронирований владельца c id: {}", userId);
+        return bulkImportService.importBookings(body, userId);
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.bulk.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ImportErrorDto {
+    private long line;
+    private String message;
+}
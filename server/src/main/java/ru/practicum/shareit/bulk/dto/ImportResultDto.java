@@ -0,0 +1,15 @@
+package ru.practicum.shareit.bulk.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ImportResultDto {
+    private long imported;
+    private long failed;
+    // Только первые ошибки, их общее число - в failed
+    private List<ImportErrorDto> errors;
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.bulk.service;
+
+import ru.practicum.shareit.bulk.dto.ImportResultDto;
+
+import java.io.InputStream;
+
+public interface BulkImportService {
+    ImportResultDto importUsers(InputStream in);
+
+    ImportResultDto importItems(InputStream in, Long ownerId);
+
+    ImportResultDto importBookings(InputStream in, Long ownerId);
+}
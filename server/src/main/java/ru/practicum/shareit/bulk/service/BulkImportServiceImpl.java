@@ -0,0 +1,196 @@
+package ru.practicum.shareit.bulk.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingImport;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.bulk.dto.ImportResultDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestMatchService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Транзакциями управляет NdjsonImporter (по одной на пачку), поэтому методы сервиса не транзакционные
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkImportServiceImpl implements BulkImportService {
+    private final NdjsonImporter importer;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRequestMatchService itemRequestMatchService;
+    private final ItemAvailabilityService itemAvailabilityService;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final UserMapper userMapper;
+    private final ItemMapper itemMapper;
+
+    @Override
+    public ImportResultDto importUsers(InputStream in) {
+        ImportResultDto result = importer.importRows(in, UserDto.class, this::writeUsers).toDto();
+        log.info("Импорт пользователей: записано {}, отклонено {}", result.getImported(), result.getFailed());
+        return result;
+    }
+
+    @Override
+    public ImportResultDto importItems(InputStream in, Long ownerId) {
+        userService.getUserById(ownerId);
+        ImportResultDto result = importer.importRows(in, ItemDto.class,
+                (rows, report) -> writeItems(rows, ownerId, report), ItemDto.CreateValidation.class).toDto();
+        log.info("Импорт предметов владельца с id {}: записано {}, отклонено {}", ownerId, result.getImported(),
+                result.getFailed());
+        return result;
+    }
+
+    @Override
+    public ImportResultDto importBookings(InputStream in, Long ownerId) {
+        userService.getUserById(ownerId);
+        ImportResultDto result = importer.importRows(in, BookingImport.class,
+                (rows, report) -> writeBookings(rows, ownerId, report)).toDto();
+        log.info("Импорт бронирований владельца с id {}: записано {}, отклонено {}", ownerId, result.getImported(),
+                result.getFailed());
+        return result;
+    }
+
+    private void writeUsers(List<ImportRow<UserDto>> rows, ImportReport report) {
+        Set<String> taken = new HashSet<>(userRepository.findEmailsIn(rows.stream()
+                .map(row -> row.value().getEmail())
+                .toList()));
+
+        List<User> users = new ArrayList<>();
+        for (ImportRow<UserDto> row : rows) {
+            // add заодно отсекает повторы email внутри пачки
+            if (!taken.add(row.value().getEmail())) {
+                report.reject(row.line(), "Пользователь с такой почтой уже существует");
+                continue;
+            }
+            User user = userMapper.toUser(row.value());
+            user.setId(null);
+            users.add(user);
+        }
+        userRepository.saveAllAndFlush(users);
+        report.addImported(users.size());
+    }
+
+    private void writeItems(List<ImportRow<ItemDto>> rows, Long ownerId, ImportReport report) {
+        User owner = userRepository.getReferenceById(ownerId);
+        Set<Long> requestIds = rows.stream()
+                .map(row -> row.value().getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<Item> items = new ArrayList<>();
+        for (ImportRow<ItemDto> row : rows) {
+            Long requestId = row.value().getRequestId();
+            if (requestId != null && !requests.containsKey(requestId)) {
+                report.reject(row.line(), String.format("Запрос с id = %d не найден", requestId));
+                continue;
+            }
+            Item item = itemMapper.toItem(row.value());
+            item.setId(null);
+            item.setOwner(owner);
+            item.setRequest(requests.get(requestId));
+            items.add(item);
+        }
+        itemRepository.saveAllAndFlush(items);
+        itemBookingSummaryService.initialize(items.stream().map(Item::getId).toList());
+        items.forEach(itemRequestMatchService::matchItem);
+        report.addImported(items.size());
+    }
+
+    // Вещи пачки блокируются, как при обычном бронировании, чтобы проверка пересечений
+    // не разошлась с параллельно создаваемыми бронированиями
+    private void writeBookings(List<ImportRow<BookingImport>> rows, Long ownerId, ImportReport report) {
+        Set<Long> itemIds = rows.stream()
+                .map(row -> row.value().getItemId())
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Item> items = itemRepository.findAllByIdForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, User> bookers = userRepository.findAllById(rows.stream()
+                        .map(row -> row.value().getBookerId())
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        LocalDateTime from = rows.stream().map(row -> row.value().getStart()).min(Comparator.naturalOrder()).get();
+        LocalDateTime to = rows.stream().map(row -> row.value().getEnd()).max(Comparator.naturalOrder()).get();
+        Map<Long, List<Booking>> activeBookings = new HashMap<>(bookingRepository
+                .findOverlappingBookings(items.keySet(), from, to).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId())));
+
+        List<Booking> bookings = new ArrayList<>();
+        for (ImportRow<BookingImport> row : rows) {
+            BookingImport value = row.value();
+            Item item = items.get(value.getItemId());
+            User booker = bookers.get(value.getBookerId());
+            BookingStatus status = Optional.ofNullable(value.getStatus()).orElse(BookingStatus.WAITING);
+
+            if (!value.getStart().isBefore(value.getEnd())) {
+                report.reject(row.line(), "Дата начала должна быть раньше даты конца");
+            } else if (item == null || !item.getOwner().getId().equals(ownerId)) {
+                report.reject(row.line(), String.format("Предмет с id = %d не найден у владельца", value.getItemId()));
+            } else if (booker == null) {
+                report.reject(row.line(), String.format("Пользователь с id = %d не найден", value.getBookerId()));
+            } else if (booker.getId().equals(ownerId)) {
+                report.reject(row.line(), "Владелец не может бронировать свою вещь");
+            } else if (isActive(status) && overlaps(activeBookings.get(item.getId()), value)) {
+                report.reject(row.line(), "Вещь уже забронирована на указанный период");
+            } else {
+                Booking booking = Booking.builder()
+                        .start(value.getStart())
+                        .end(value.getEnd())
+                        .item(item)
+                        .booker(booker)
+                        .status(status)
+                        .build();
+                bookings.add(booking);
+                if (isActive(status)) {
+                    activeBookings.computeIfAbsent(item.getId(), id -> new ArrayList<>()).add(booking);
+                }
+            }
+        }
+        bookingRepository.saveAllAndFlush(bookings);
+
+        bookings.stream()
+                .filter(booking -> isActive(booking.getStatus()))
+                .forEach(booking -> itemAvailabilityService.onBookingCreated(booking.getItem().getId(),
+                        booking.getStart(), booking.getEnd()));
+        bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .forEach(itemBookingSummaryService::refresh);
+        report.addImported(bookings.size());
+    }
+
+    private static boolean isActive(BookingStatus status) {
+        return status == BookingStatus.WAITING || status == BookingStatus.APPROVED;
+    }
+
+    private static boolean overlaps(List<Booking> bookings, BookingImport value) {
+        return bookings != null && bookings.stream()
+                .anyMatch(booking -> booking.getStart().isBefore(value.getEnd())
+                        && booking.getEnd().isAfter(value.getStart()));
+    }
+}
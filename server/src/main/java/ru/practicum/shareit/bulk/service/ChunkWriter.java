@@ -0,0 +1,10 @@
+package ru.practicum.shareit.bulk.service;
+
+import java.util.List;
+
+// Записывает пачку строк в рамках одной транзакции. Строки, не прошедшие проверки,
+// отмечаются в отчете через reject, записанные - через addImported
+@FunctionalInterface
+interface ChunkWriter<T> {
+    void write(List<ImportRow<T>> rows, ImportReport report);
+}
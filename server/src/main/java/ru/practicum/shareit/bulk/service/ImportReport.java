@@ -0,0 +1,45 @@
+package ru.practicum.shareit.bulk.service;
+
+import ru.practicum.shareit.bulk.dto.ImportErrorDto;
+import ru.practicum.shareit.bulk.dto.ImportResultDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class ImportReport {
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final List<ImportErrorDto> errors = new ArrayList<>();
+    private long imported;
+    private long failed;
+
+    void reject(long line, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(ImportErrorDto.builder()
+                    .line(line)
+                    .message(message)
+                    .build());
+        }
+    }
+
+    void addImported(long count) {
+        imported += count;
+    }
+
+    void merge(ImportReport other) {
+        imported += other.imported;
+        failed += other.failed;
+        other.errors.stream()
+                .limit(Math.max(0, MAX_REPORTED_ERRORS - errors.size()))
+                .forEach(errors::add);
+    }
+
+    ImportResultDto toDto() {
+        return ImportResultDto.builder()
+                .imported(imported)
+                .failed(failed)
+                .errors(errors)
+                .build();
+    }
+}
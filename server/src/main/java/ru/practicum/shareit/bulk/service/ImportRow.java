@@ -0,0 +1,4 @@
+package ru.practicum.shareit.bulk.service;
+
+record ImportRow<T>(long line, T value) {
+}
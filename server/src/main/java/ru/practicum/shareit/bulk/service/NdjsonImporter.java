@@ -0,0 +1,198 @@
+package ru.practicum.shareit.bulk.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Построчно читает NDJSON и записывает строки пачками по chunk-size, каждую в своей транзакции.
+// Весь файл в памяти не держится, длина строки ограничена max-line-length. Ошибки разбора и проверки
+// не прерывают импорт, а попадают в отчет с номером строки. Если пачка не записалась целиком, она
+// повторяется по одной строке, чтобы найти виновные и сохранить остальные
+@Slf4j
+@Component
+public class NdjsonImporter {
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+    private final int maxLineLength;
+
+    public NdjsonImporter(ObjectMapper objectMapper,
+                          Validator validator,
+                          PlatformTransactionManager transactionManager,
+                          EntityManager entityManager,
+                          @Value("${shareit.import.chunk-size:500}") int chunkSize,
+                          @Value("${shareit.import.max-line-length:65536}") int maxLineLength) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+        this.maxLineLength = maxLineLength;
+    }
+
+    <T> ImportReport importRows(InputStream in, Class<T> type, ChunkWriter<T> writer, Class<?>... groups) {
+        ImportReport report = new ImportReport();
+        List<ImportRow<T>> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+
+        try (LineReader reader = new LineReader(in, maxLineLength)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (reader.isTruncated()) {
+                    report.reject(lineNumber, String.format("Строка длиннее %d символов", maxLineLength));
+                    continue;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                T value = parse(line, lineNumber, type, report, groups);
+                if (value == null) {
+                    continue;
+                }
+                chunk.add(new ImportRow<>(lineNumber, value));
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, writer, report);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Импорт прерван на строке {}: {}", lineNumber + 1, e.getMessage());
+            report.reject(lineNumber + 1, "Не удалось прочитать данные: " + e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, writer, report);
+        }
+        return report;
+    }
+
+    private <T> T parse(String line, long lineNumber, Class<T> type, ImportReport report, Class<?>... groups) {
+        T value;
+        try {
+            value = objectMapper.readValue(line, type);
+        } catch (JsonProcessingException e) {
+            report.reject(lineNumber, "Некорректный JSON: " + e.getOriginalMessage());
+            return null;
+        }
+        if (value == null) {
+            report.reject(lineNumber, "Ожидался JSON-объект");
+            return null;
+        }
+
+        Set<ConstraintViolation<T>> violations = validator.validate(value, groups);
+        if (!violations.isEmpty()) {
+            report.reject(lineNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+        return value;
+    }
+
+    // Откатывается только транзакция пачки: предыдущие пачки уже зафиксированы, поэтому любая ошибка
+    // записи превращается в ошибки строк, а не прерывает весь запрос
+    private <T> void writeChunk(List<ImportRow<T>> chunk, ChunkWriter<T> writer, ImportReport report) {
+        try {
+            report.merge(writeInTransaction(chunk, writer));
+        } catch (RuntimeException e) {
+            log.warn("Пачка строк {}-{} не записана, повтор по одной строке: {}", chunk.getFirst().line(),
+                    chunk.getLast().line(), causeOf(e));
+            for (ImportRow<T> row : chunk) {
+                try {
+                    report.merge(writeInTransaction(List.of(row), writer));
+                } catch (DataAccessException rowException) {
+                    report.reject(row.line(), "Строка не сохранена: нарушено ограничение базы данных");
+                } catch (RuntimeException rowException) {
+                    log.error("Строка {} не сохранена", row.line(), rowException);
+                    report.reject(row.line(), "Строка не сохранена: внутренняя ошибка сервера");
+                }
+            }
+        }
+    }
+
+    private static String causeOf(RuntimeException e) {
+        return e instanceof DataAccessException dataAccessException
+                ? dataAccessException.getMostSpecificCause().getMessage()
+                : e.toString();
+    }
+
+    private <T> ImportReport writeInTransaction(List<ImportRow<T>> rows, ChunkWriter<T> writer) {
+        return transactionTemplate.execute(status -> {
+            ImportReport chunkReport = new ImportReport();
+            writer.write(rows, chunkReport);
+            // Записанные сущности больше не нужны: контекст может жить весь запрос (open-in-view)
+            entityManager.flush();
+            entityManager.clear();
+            return chunkReport;
+        });
+    }
+
+    // Читает строки не длиннее maxLength символов. Остаток слишком длинной строки пропускается,
+    // чтобы тело без переводов строки не заставило держать в памяти всю загрузку
+    private static final class LineReader implements Closeable {
+        private final Reader reader;
+        private final int maxLength;
+        private final StringBuilder line = new StringBuilder();
+        private boolean truncated;
+
+        LineReader(InputStream in, int maxLength) {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            this.maxLength = maxLength;
+        }
+
+        String readLine() throws IOException {
+            line.setLength(0);
+            truncated = false;
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            while (c != -1 && c != '\n') {
+                if (line.length() < maxLength) {
+                    line.append((char) c);
+                } else {
+                    truncated = true;
+                }
+                c = reader.read();
+            }
+            if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+                line.setLength(line.length() - 1);
+            }
+            return line.toString();
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
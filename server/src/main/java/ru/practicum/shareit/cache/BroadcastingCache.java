@@ -0,0 +1,40 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+// Сообщает о каждом вытеснении другим экземплярам сервера. Локальное вытеснение откладывается до фиксации
+// транзакции, а рассылка идет сразу, внутри нее: NOTIFY доставляется только после фиксации и не требует
+// второго соединения из пула. Заполнение кэша при промахе (put) не рассылается: обновления данных
+// вытесняют запись, а не заменяют ее.
+class BroadcastingCache extends TransactionAwareCacheDecorator {
+    private final CacheInvalidationBus bus;
+
+    BroadcastingCache(GuardedCaffeineCache target, CacheInvalidationBus bus) {
+        super(target);
+        this.bus = bus;
+    }
+
+    @Override
+    public void evict(Object key) {
+        bus.publish(getName(), key);
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        bus.publish(getName(), key);
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        bus.publish(getName(), null);
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        bus.publish(getName(), null);
+        return super.invalidate();
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+// Общий кэш пользователей и вещей. Хранятся DTO, а не сущности, чтобы в кэш не попадали
+// ленивые связи и сессия Hibernate. Запись и удаление из кэша откладываются до фиксации транзакции,
+// поэтому откатившееся изменение не вытесняет и не подменяет актуальные данные. Запись, загруженная
+// до вытеснения того же ключа, отбрасывается (GuardedCaffeineCache), иначе отложенный put читающей
+// транзакции мог бы вернуть в кэш устаревшие данные.
+// Статистика Caffeine (recordStats) публикуется actuator как cache.gets{result=hit|miss}.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${shareit.cache.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}") String spec,
+            ObjectProvider<CacheInvalidationBus> invalidationBus) {
+        CacheInvalidationBus bus = invalidationBus.getIfAvailable();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name,
+                                               com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                GuardedCaffeineCache guardedCache = new GuardedCaffeineCache(name, cache);
+                if (bus == null) {
+                    return new TransactionAwareCacheDecorator(guardedCache);
+                }
+                bus.register(name, guardedCache);
+                return new BroadcastingCache(guardedCache, bus);
+            }
+        };
+        cacheManager.setCacheSpecification(spec);
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCacheNames(List.of(USERS, ITEMS));
+        return cacheManager;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.lang.Nullable;
+
+// Рассылка вытеснений из кэша другим экземплярам сервера. Ключи кэшей - идентификаторы типа Long.
+public interface CacheInvalidationBus {
+    void register(String cacheName, GuardedCaffeineCache localCache);
+
+    // key == null означает очистку всего кэша
+    void publish(String cacheName, @Nullable Object key);
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Кэш, который не принимает запись, загруженную до вытеснения того же ключа.
+// Запись после промаха откладывается до фиксации читающей транзакции и может прийти позже вытеснения
+// из параллельного обновления; тогда в кэше до истечения TTL остался бы устаревший DTO.
+// Поэтому при промахе запоминается поколение ключа, вытеснение его увеличивает, а put с устаревшим
+// поколением пропускается - следующее чтение просто загрузит данные заново.
+public class GuardedCaffeineCache extends CaffeineCache {
+    private static final int STRIPES = 64;
+    private static final int MAX_PENDING_LOADS = 32;
+
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    // Промах и последующая запись в кэш выполняются в одном потоке
+    private final ThreadLocal<Map<Object, Long>> pendingLoads = ThreadLocal.withInitial(() ->
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Long> eldest) {
+                    return size() > MAX_PENDING_LOADS;
+                }
+            });
+
+    GuardedCaffeineCache(String name, Cache<Object, Object> cache) {
+        super(name, cache, false);
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(Object key) {
+        long generation = generations.get(stripe(key));
+        ValueWrapper value = super.get(key);
+        if (value == null) {
+            pendingLoads.get().put(key, generation);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        Long generation = pendingLoads.get().remove(key);
+        if (generation != null && generation != generations.get(stripe(key))) {
+            return;
+        }
+        super.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictLocally(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        generations.incrementAndGet(stripe(key));
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        clearLocally();
+    }
+
+    @Override
+    public boolean invalidate() {
+        advanceAll();
+        return super.invalidate();
+    }
+
+    // Вытеснение без рассылки другим экземплярам: для уведомлений, пришедших извне
+    public void evictLocally(Object key) {
+        generations.incrementAndGet(stripe(key));
+        super.evict(key);
+    }
+
+    public void clearLocally() {
+        advanceAll();
+        super.clear();
+    }
+
+    private void advanceAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+    }
+
+    private static int stripe(Object key) {
+        return Math.floorMod(key.hashCode(), STRIPES);
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Вытеснения рассылаются через LISTEN/NOTIFY PostgreSQL, так что для нескольких экземпляров сервера
+// не нужен отдельный брокер. NOTIFY отправляется в соединении текущей транзакции и доставляется только
+// после ее фиксации. Слушатель держит собственное соединение вне пула, чтобы не отнимать его у запросов;
+// после потери соединения все локальные кэши очищаются, потому что уведомления за время переподключения
+// пропадают.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.cache.invalidation", havingValue = "postgres")
+public class PostgresCacheInvalidationBus implements CacheInvalidationBus {
+    private static final String CHANNEL = "shareit_cache_invalidation";
+    private static final String ALL_KEYS = "*";
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    private final DataSource dataSource;
+    private final DataSourceProperties dataSourceProperties;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, GuardedCaffeineCache> localCaches = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+    private Thread listener;
+
+    public PostgresCacheInvalidationBus(DataSource dataSource, DataSourceProperties dataSourceProperties) {
+        this.dataSource = dataSource;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    @Override
+    public void register(String cacheName, GuardedCaffeineCache localCache) {
+        localCaches.put(cacheName, localCache);
+    }
+
+    // Вызывается внутри изменяющей транзакции и использует ее соединение. Ошибка не подавляется: иначе
+    // изменение зафиксировалось бы, а другие экземпляры продолжили бы отдавать устаревшие данные
+    @Override
+    public void publish(String cacheName, @Nullable Object key) {
+        String payload = String.join(":", nodeId, cacheName, key == null ? ALL_KEYS : key.toString());
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, payload);
+            statement.execute();
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Не удалось разослать вытеснение из кэша " + payload, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        listener = Thread.ofPlatform()
+                .name("cache-invalidation-listener")
+                .daemon()
+                .start(this::listen);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                localCaches.values().forEach(GuardedCaffeineCache::clearLocally);
+                log.info("Подписка на вытеснения из кэша через канал {}", CHANNEL);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Соединение для вытеснений из кэша потеряно, повтор через {} мс: {}",
+                        RECONNECT_DELAY_MILLIS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(String payload) {
+        String[] parts = payload.split(":", 3);
+        if (parts.length != 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+        GuardedCaffeineCache cache = localCaches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (ALL_KEYS.equals(parts[2])) {
+            cache.clearLocally();
+        } else {
+            cache.evictLocally(Long.valueOf(parts[2]));
+        }
+        log.debug("Вытеснение из кэша {} по уведомлению другого экземпляра: {}", parts[1], parts[2]);
+    }
+}
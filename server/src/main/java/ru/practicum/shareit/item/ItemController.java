@@ -2,13 +2,17 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Slf4j
@@ -53,9 +57,27 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItemsByText(@RequestParam String text) {
-        log.info("[GET] Запрос на получение предметов по тексту: {}", text);
-        return itemService.searchItemsByText(text);
+    public List<ItemDto> searchItemsByText(@RequestParam String text,
+                                           @RequestParam(defaultValue = "0") int from,
+                                           @RequestParam(defaultValue = "20") int size) {
+        log.info("[GET] Запрос на получение предметов по тексту: {}, from: {}, size: {}", text, from, size);
+        return itemService.searchItemsByText(text, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public List<ItemSuggestionDto> suggestItems(@RequestParam String prefix,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        log.info("[GET] Запрос подсказок по префиксу: {}, limit: {}", prefix, limit);
+        return itemService.suggestItems(prefix, limit);
+    }
+
+    @GetMapping("/{id}/availability")
+    public List<ItemAvailabilityDto> getItemAvailability(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("[GET] Запрос занятости предмета с id: {} с {} по {}", id, from, to);
+        return itemService.getItemAvailability(id, from, to);
     }
 
     @PostMapping("{itemId}/comment")
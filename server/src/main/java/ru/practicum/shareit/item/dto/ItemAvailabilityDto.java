@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class ItemAvailabilityDto {
+    private LocalDate start;
+    private LocalDate end;
+    private Boolean available;
+}
@@ -16,5 +16,7 @@ public interface ItemMapper {
 
     ItemOwnerDto toItemOwnerDto(Item item);
 
+    ItemOwnerDto toItemOwnerDto(ItemDto itemDto);
+
     List<ItemDto> toItemsDto(List<Item> items);
 }
\ No newline at end of file
@@ -1,20 +1,62 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwnerId(Long ownerId);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Item> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    boolean existsByOwnerId(Long ownerId);
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
     @Query("SELECT i FROM Item i " +
             "WHERE i.available = true " +
             "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
-            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
-    List<Item> searchItemsByText(@Param("text") String text);
+            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
+            "ORDER BY i.id DESC")
+    List<Item> searchItemsByText(@Param("text") String text, Limit limit);
+
+    // prefix уже нормализован: в нижнем регистре, без знаков препинания и с "е" вместо "ё"
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.available = true " +
+            "AND (REPLACE(LOWER(i.name), 'ё', 'е') LIKE CONCAT(:prefix, '%') " +
+            "OR REPLACE(LOWER(i.name), 'ё', 'е') LIKE CONCAT('% ', :prefix, '%')) " +
+            "ORDER BY LOWER(i.name), i.id")
+    List<Item> suggestItemsByName(@Param("prefix") String prefix, Limit limit);
+
+    @Query(value = """
+            SELECT * FROM items i
+            WHERE i.is_available
+            AND (LOWER(i.name) LIKE '%' || LOWER(:text) || '%'
+            OR LOWER(i.description) LIKE '%' || LOWER(:text) || '%')
+            ORDER BY GREATEST(similarity(LOWER(i.name), LOWER(:text)),
+                              similarity(LOWER(i.description), LOWER(:text))) DESC, i.id DESC
+            LIMIT :size OFFSET :from
+            """, nativeQuery = true)
+    List<Item> searchItemsByTrigram(@Param("text") String text, @Param("from") int from, @Param("size") int size);
 
     List<Item> findAllByRequestId(Long requestId);
+
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    List<Item> findByIdGreaterThanOrderById(Long id, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// Поиск средствами БД, общий для всех реплик сервера. На Postgres запрос использует GIN-индексы pg_trgm
+// и ранжирует по похожести, на остальных БД (H2 в тестах) выполняется обычный LIKE.
+// Подсказки тоже идут в БД, так что в этом режиме сервер не держит в памяти ни одного индекса вещей.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "database")
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final boolean trigramSupported;
+
+    public DatabaseItemSearchEngine(ItemRepository itemRepository, DataSourceProperties dataSourceProperties) {
+        this.itemRepository = itemRepository;
+        this.trigramSupported = DatabaseDriver.fromJdbcUrl(dataSourceProperties.determineUrl())
+                == DatabaseDriver.POSTGRESQL;
+        log.info("Поиск предметов выполняется в БД, pg_trgm: {}", trigramSupported);
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        if (trigramSupported) {
+            return itemRepository.searchItemsByTrigram(text, from, size);
+        }
+        return itemRepository.searchItemsByText(text, Limit.of(from + size)).stream()
+                .skip(from)
+                .toList();
+    }
+
+    @Override
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        String normalized = String.join(" ", ItemSearchIndex.tokenize(prefix));
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return itemRepository.suggestItemsByName(normalized, Limit.of(limit)).stream()
+                .map(item -> ItemSuggestionDto.builder()
+                        .id(item.getId())
+                        .name(item.getName())
+                        .build())
+                .toList();
+    }
+
+    // Поиск и подсказки читают БД, удалять нечего
+    @Override
+    public void onItemsDeleted(Collection<Long> itemIds) {
+    }
+}
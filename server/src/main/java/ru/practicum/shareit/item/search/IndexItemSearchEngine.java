@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Поиск по индексу в памяти процесса с ранжированием BM25, подсказки из словаря названий в памяти
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "memory", matchIfMissing = true)
+public class IndexItemSearchEngine implements ItemSearchEngine {
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        List<Long> rankedIds = itemSearchIndex.search(text, from, size);
+        Map<Long, Item> items = itemRepository.findAllById(rankedIds).stream()
+                .filter(item -> itemSearchIndex.matches(item, text))
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        return rankedIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        return itemSuggestIndex.suggest(prefix, limit);
+    }
+
+    @Override
+    public void onItemsDeleted(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> itemIds.forEach(itemId -> {
+            itemSearchIndex.remove(itemId);
+            itemSuggestIndex.remove(itemId);
+        }));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
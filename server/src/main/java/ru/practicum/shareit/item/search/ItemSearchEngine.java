@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+
+// Стратегия полнотекстового поиска вещей, выбирается свойством shareit.search.mode
+public interface ItemSearchEngine {
+    List<Item> search(String text, int from, int size);
+
+    List<ItemSuggestionDto> suggest(String prefix, int limit);
+
+    // Вещи, удаленные каскадом в БД (вместе с владельцем), JPA-колбэков не вызывают
+    void onItemsDeleted(Collection<Long> itemIds);
+}
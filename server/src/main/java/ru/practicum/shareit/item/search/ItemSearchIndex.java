@@ -0,0 +1,239 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+// Инвертированный индекс доступных вещей: токен из названия или описания -> (id вещи -> взвешенная частота).
+// Токен запроса совпадает с любым токеном индекса, который с него начинается. Результаты ранжируются по BM25,
+// совпадения в названии весят больше, чем в описании.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "memory", matchIfMissing = true)
+public class ItemSearchIndex {
+    private static final Pattern DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // При равной релевантности выше идут более новые вещи
+    private static final Comparator<Map.Entry<Long, Double>> WORST_FIRST = Map.Entry.<Long, Double>comparingByValue()
+            .thenComparing(Map.Entry.comparingByKey());
+
+    private final ItemRepository itemRepository;
+    private final ConcurrentNavigableMap<String, Map<Long, Float>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, IndexedItem> items = new ConcurrentHashMap<>();
+    // ReentrantLock вместо synchronized: перестроение ходит в БД и не должно закреплять виртуальный поток
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong totalLength = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.lock();
+        try {
+            postings.clear();
+            items.clear();
+            totalLength.set(0);
+
+            long lastId = 0L;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findByIdGreaterThanOrderById(lastId, Limit.of(REBUILD_BATCH_SIZE));
+                batch.forEach(this::add);
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            log.info("Поисковый индекс построен: {} предметов, {} токенов", items.size(), postings.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void add(Item item) {
+        lock.lock();
+        try {
+            remove(item.getId());
+            if (!Boolean.TRUE.equals(item.getAvailable())) {
+                return;
+            }
+
+            List<String> nameTokens = tokenize(item.getName());
+            List<String> descriptionTokens = tokenize(item.getDescription());
+            Map<String, Float> frequencies = new HashMap<>();
+            nameTokens.forEach(token -> frequencies.merge(token, NAME_WEIGHT, Float::sum));
+            descriptionTokens.forEach(token -> frequencies.merge(token, 1.0f, Float::sum));
+
+            int length = nameTokens.size() + descriptionTokens.size();
+            items.put(item.getId(), new IndexedItem(frequencies.keySet().stream().sorted().toList(), length));
+            totalLength.addAndGet(length);
+            frequencies.forEach((token, frequency) -> postings.computeIfAbsent(token, key -> new ConcurrentHashMap<>())
+                    .put(item.getId(), frequency));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.lock();
+        try {
+            IndexedItem indexed = items.remove(itemId);
+            if (indexed == null) {
+                return;
+            }
+            totalLength.addAndGet(-indexed.length());
+            indexed.tokens().forEach(token -> postings.computeIfPresent(token, (key, ids) -> {
+                ids.remove(itemId);
+                return ids.isEmpty() ? null : ids;
+            }));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Возвращает id вещей с позиции from по from + size в порядке убывания релевантности.
+    // Кандидаты берутся из постингов самого редкого токена запроса и сразу попадают в кучу из from + size
+    // лучших, остальные токены проверяются по словарю самой вещи. Полный список совпадений не строится.
+    public List<Long> search(String text, int from, int size) {
+        List<String> queryTokens = tokenize(text).stream().distinct().toList();
+        if (queryTokens.isEmpty() || size <= 0) {
+            return Collections.emptyList();
+        }
+
+        String driver = null;
+        long driverPostings = Long.MAX_VALUE;
+        for (String token : queryTokens) {
+            long count = prefixRange(token).values().stream()
+                    .mapToLong(Map::size)
+                    .sum();
+            if (count == 0) {
+                return Collections.emptyList();
+            }
+            if (count < driverPostings) {
+                driver = token;
+                driverPostings = count;
+            }
+        }
+
+        int documents = items.size();
+        double averageLength = documents == 0 ? 1.0 : Math.max(1.0, (double) totalLength.get() / documents);
+        int limit = from + size;
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(WORST_FIRST);
+        for (Map.Entry<String, Map<Long, Float>> posting : prefixRange(driver).entrySet()) {
+            for (Long itemId : posting.getValue().keySet()) {
+                IndexedItem indexed = items.get(itemId);
+                // Вещь с несколькими токенами на этот префикс учитывается только при первом из них
+                if (indexed == null || !posting.getKey().equals(indexed.firstTokenStartingWith(driver))) {
+                    continue;
+                }
+                double score = score(itemId, indexed, queryTokens, documents, averageLength);
+                if (Double.isNaN(score)) {
+                    continue;
+                }
+                top.offer(Map.entry(itemId, score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+
+        LinkedList<Long> ranked = new LinkedList<>();
+        while (!top.isEmpty()) {
+            ranked.addFirst(top.poll().getKey());
+        }
+        return ranked.stream()
+                .skip(from)
+                .toList();
+    }
+
+    // Проверка вещи, загруженной из БД: индекс мог устареть, если транзакция записи откатилась
+    public boolean matches(Item item, String text) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return false;
+        }
+
+        List<String> tokens = new ArrayList<>(tokenize(item.getName()));
+        tokens.addAll(tokenize(item.getDescription()));
+        List<String> queryTokens = tokenize(text);
+
+        return !queryTokens.isEmpty() && queryTokens.stream()
+                .allMatch(queryToken -> tokens.stream().anyMatch(token -> token.startsWith(queryToken)));
+    }
+
+    public static List<String> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(DELIMITER.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е')))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private ConcurrentNavigableMap<String, Map<Long, Float>> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+    }
+
+    // BM25 по всем токенам запроса или NaN, если какой-то токен запроса не встречается у вещи
+    private double score(Long itemId, IndexedItem indexed, List<String> queryTokens, int documents,
+                         double averageLength) {
+        double norm = K1 * (1 - B + B * indexed.length() / averageLength);
+        double score = 0;
+        for (String queryToken : queryTokens) {
+            boolean matched = false;
+            for (String token : indexed.tokensStartingWith(queryToken)) {
+                Map<Long, Float> frequencies = postings.get(token);
+                Float frequency = frequencies == null ? null : frequencies.get(itemId);
+                // Вещь переиндексируется параллельно
+                if (frequency == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documents - frequencies.size() + 0.5) / (frequencies.size() + 0.5));
+                score += idf * frequency * (K1 + 1) / (frequency + norm);
+                matched = true;
+            }
+            if (!matched) {
+                return Double.NaN;
+            }
+        }
+        return score;
+    }
+
+    // tokens отсортированы, поэтому токены с общим префиксом идут подряд
+    private record IndexedItem(List<String> tokens, int length) {
+
+        private List<String> tokensStartingWith(String prefix) {
+            int from = firstIndexNotBefore(prefix);
+            int to = from;
+            while (to < tokens.size() && tokens.get(to).startsWith(prefix)) {
+                to++;
+            }
+            return tokens.subList(from, to);
+        }
+
+        private String firstTokenStartingWith(String prefix) {
+            int index = firstIndexNotBefore(prefix);
+            return index < tokens.size() && tokens.get(index).startsWith(prefix) ? tokens.get(index) : null;
+        }
+
+        private int firstIndexNotBefore(String prefix) {
+            int index = Collections.binarySearch(tokens, prefix);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
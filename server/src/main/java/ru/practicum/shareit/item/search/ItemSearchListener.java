@@ -0,0 +1,73 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// JPA-колбэки срабатывают при flush, а не при коммите, поэтому изменения копятся до конца транзакции
+// и применяются к индексам поиска и подсказок только после успешного коммита. Откаченная транзакция индексы не меняет.
+@RequiredArgsConstructor
+public class ItemSearchListener {
+    private final ObjectProvider<ItemSearchIndex> itemSearchIndex;
+    private final ObjectProvider<ItemSuggestIndex> itemSuggestIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Item item) {
+        afterCommit(item.getId(), item);
+    }
+
+    @PostRemove
+    public void onRemove(Item item) {
+        afterCommit(item.getId(), null);
+    }
+
+    private void afterCommit(Long itemId, Item item) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(itemId, item);
+            return;
+        }
+        pendingChanges().put(itemId, item);
+    }
+
+    // Синхронизации приостановленной внешней транзакции здесь не видны, поэтому у REQUIRES_NEW свой набор изменений
+    private Map<Long, Item> pendingChanges() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges changes) {
+                return changes.items;
+            }
+        }
+        PendingChanges changes = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(changes);
+        return changes.items;
+    }
+
+    private void apply(Long itemId, Item item) {
+        if (item == null) {
+            itemSearchIndex.ifAvailable(index -> index.remove(itemId));
+            itemSuggestIndex.ifAvailable(index -> index.remove(itemId));
+        } else {
+            itemSearchIndex.ifAvailable(index -> index.add(item));
+            itemSuggestIndex.ifAvailable(index -> index.add(item));
+        }
+    }
+
+    // Последнее состояние каждой вещи в транзакции, null - вещь удалена
+    private final class PendingChanges implements TransactionSynchronization {
+        private final Map<Long, Item> items = new LinkedHashMap<>();
+
+        @Override
+        public void afterCommit() {
+            items.forEach(ItemSearchListener.this::apply);
+            items.clear();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Отсортированный словарь названий доступных вещей для подсказок при вводе.
+// Ключ - нормализованное название, начиная с каждого его слова, плюс id вещи, поэтому поиск по префиксу
+// сводится к одному диапазону словаря.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "memory", matchIfMissing = true)
+public class ItemSuggestIndex {
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int MAX_WORDS = 8;
+
+    private final ItemRepository itemRepository;
+    private final ConcurrentNavigableMap<String, ItemSuggestionDto> suggestions = new ConcurrentSkipListMap<>();
+    private final Map<Long, List<String>> keysByItem = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.lock();
+        try {
+            suggestions.clear();
+            keysByItem.clear();
+
+            long lastId = 0L;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findByIdGreaterThanOrderById(lastId, Limit.of(REBUILD_BATCH_SIZE));
+                batch.forEach(this::add);
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            log.info("Индекс подсказок построен: {} предметов", keysByItem.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void add(Item item) {
+        lock.lock();
+        try {
+            remove(item.getId());
+            if (!Boolean.TRUE.equals(item.getAvailable())) {
+                return;
+            }
+
+            List<String> words = ItemSearchIndex.tokenize(item.getName());
+            ItemSuggestionDto suggestion = ItemSuggestionDto.builder()
+                    .id(item.getId())
+                    .name(item.getName())
+                    .build();
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < Math.min(words.size(), MAX_WORDS); i++) {
+                String key = String.join(" ", words.subList(i, words.size())) + KEY_SEPARATOR + item.getId();
+                suggestions.put(key, suggestion);
+                keys.add(key);
+            }
+            keysByItem.put(item.getId(), keys);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.lock();
+        try {
+            List<String> keys = keysByItem.remove(itemId);
+            if (keys != null) {
+                keys.forEach(suggestions::remove);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        String normalized = String.join(" ", ItemSearchIndex.tokenize(prefix));
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, ItemSuggestionDto> result = new LinkedHashMap<>();
+        for (ItemSuggestionDto suggestion : suggestions.subMap(normalized, normalized + Character.MAX_VALUE).values()) {
+            result.putIfAbsent(suggestion.getId(), suggestion);
+            if (result.size() == limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+}
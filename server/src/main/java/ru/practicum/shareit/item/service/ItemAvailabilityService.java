@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemAvailabilityService {
+    List<ItemAvailabilityDto> getAvailability(Long itemId, LocalDate from, LocalDate to);
+
+    void onBookingCreated(Long itemId, LocalDateTime start, LocalDateTime end);
+
+    void onBookingReleased(Long itemId);
+
+    void onItemDeleted(Long itemId);
+}
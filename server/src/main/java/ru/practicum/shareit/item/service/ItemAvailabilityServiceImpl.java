@@ -0,0 +1,170 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Занятость вещи хранится битовой картой по дням: бит (день - baseDay) выставлен, если в этот день вещь забронирована.
+// baseDay - день построения карты: прошедшие брони не загружаются, а запросы в прошлое запрещены.
+// Карт не больше max-items, каждая живет не дольше ttl.
+@Slf4j
+@Service
+public class ItemAvailabilityServiceImpl implements ItemAvailabilityService {
+    private static final int VERSION_STRIPES = 1024;
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, DayMap> busyDays;
+    // Версии изменений бронирований по группам вещей. Карта, построенная до изменения, в кэш не попадает
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public ItemAvailabilityServiceImpl(BookingRepository bookingRepository,
+                                       @Value("${shareit.availability.max-items:10000}") long maxItems,
+                                       @Value("${shareit.availability.ttl:PT1H}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.busyDays = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public List<ItemAvailabilityDto> getAvailability(Long itemId, LocalDate from, LocalDate to) {
+        DayMap days = busyDays.getIfPresent(itemId);
+        if (days == null) {
+            days = loadAndCache(itemId);
+        }
+        List<ItemAvailabilityDto> slots = new ArrayList<>();
+
+        synchronized (days) {
+            LocalDate slotStart = from;
+            boolean slotBusy = days.isBusy(from);
+            for (LocalDate day = from.plusDays(1); !day.isAfter(to); day = day.plusDays(1)) {
+                boolean busy = days.isBusy(day);
+                if (busy != slotBusy) {
+                    slots.add(toSlot(slotStart, day.minusDays(1), slotBusy));
+                    slotStart = day;
+                    slotBusy = busy;
+                }
+            }
+            slots.add(toSlot(slotStart, to, slotBusy));
+        }
+        return slots;
+    }
+
+    // Изменения применяются внутри compute по ключу вещи, как и вставка новой карты в loadAndCache,
+    // поэтому увеличение версии и проверка версии при вставке не могут перемежаться
+    @Override
+    public void onBookingCreated(Long itemId, LocalDateTime start, LocalDateTime end) {
+        afterCommit(() -> busyDays.asMap().compute(itemId, (id, days) -> {
+            versions.incrementAndGet(stripe(id));
+            if (days != null) {
+                synchronized (days) {
+                    days.markBusy(start, end);
+                }
+            }
+            return days;
+        }));
+    }
+
+    @Override
+    public void onBookingReleased(Long itemId) {
+        // Соседние брони могут делить с освобожденной один день, поэтому карту проще построить заново
+        afterCommit(() -> busyDays.asMap().compute(itemId, (id, days) -> {
+            versions.incrementAndGet(stripe(id));
+            return null;
+        }));
+    }
+
+    @Override
+    public void onItemDeleted(Long itemId) {
+        afterCommit(() -> busyDays.invalidate(itemId));
+    }
+
+    // Загрузка из БД идет вне compute: блокировка корзины карты закрепила бы виртуальный поток
+    private DayMap loadAndCache(Long itemId) {
+        long version = versions.get(stripe(itemId));
+        DayMap loaded = load(itemId);
+        DayMap cached = busyDays.asMap().compute(itemId, (id, existing) -> {
+            if (existing != null) {
+                return existing;
+            }
+            // Бронь зафиксирована во время загрузки: снимок мог ее не увидеть, карта отдается без кэширования
+            return versions.get(stripe(id)) == version ? loaded : null;
+        });
+        return cached != null ? cached : loaded;
+    }
+
+    private DayMap load(Long itemId) {
+        LocalDate today = LocalDate.now();
+        DayMap days = new DayMap(today.toEpochDay());
+        List<Booking> bookings = bookingRepository.findActiveBookingsByItem(itemId, today.atStartOfDay());
+        bookings.forEach(booking -> days.markBusy(booking.getStart(), booking.getEnd()));
+        log.debug("Построена карта занятости предмета {} по {} бронированиям", itemId, bookings.size());
+        return days;
+    }
+
+    private static int stripe(Long itemId) {
+        return Long.hashCode(itemId) & (VERSION_STRIPES - 1);
+    }
+
+    private ItemAvailabilityDto toSlot(LocalDate start, LocalDate end, boolean busy) {
+        return ItemAvailabilityDto.builder()
+                .start(start)
+                .end(end)
+                .available(!busy)
+                .build();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class DayMap {
+        private final long baseDay;
+        private final BitSet days = new BitSet();
+
+        private DayMap(long baseDay) {
+            this.baseDay = baseDay;
+        }
+
+        private void markBusy(LocalDateTime start, LocalDateTime end) {
+            LocalDate lastDay = end.minusNanos(1).toLocalDate();
+            if (lastDay.toEpochDay() < baseDay) {
+                return;
+            }
+            days.set(toIndex(start.toLocalDate().toEpochDay()), toIndex(lastDay.toEpochDay()) + 1);
+        }
+
+        private boolean isBusy(LocalDate day) {
+            return day.toEpochDay() >= baseDay && days.get(toIndex(day.toEpochDay()));
+        }
+
+        private int toIndex(long epochDay) {
+            return (int) Math.max(0, epochDay - baseDay);
+        }
+    }
+}
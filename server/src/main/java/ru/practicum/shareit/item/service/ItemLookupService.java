@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+public interface ItemLookupService {
+    ItemDto getItem(Long itemId);
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.cache.CacheConfig;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+// Чтение вещи по id через общий кэш. Кэш вытесняется в ItemServiceImpl при изменении и удалении вещи.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemLookupServiceImpl implements ItemLookupService {
+    private final ItemRepository itemRepository;
+    private final ItemMapper itemMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.ITEMS, key = "#itemId")
+    public ItemDto getItem(Long itemId) {
+        return itemRepository.findById(itemId)
+                .map(itemMapper::toItemDto)
+                .orElseThrow(() -> {
+                    log.error("Предмет с id {} не найден", itemId);
+                    return new NotFoundException(String.format("Предмет с id = %d не найден", itemId));
+                });
+    }
+}
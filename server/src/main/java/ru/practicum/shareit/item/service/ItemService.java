@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ItemService {
@@ -17,7 +20,11 @@ public interface ItemService {
 
     void deleteItem(Long id);
 
-    List<ItemDto> searchItemsByText(String text);
+    List<ItemDto> searchItemsByText(String text, int from, int size);
+
+    List<ItemSuggestionDto> suggestItems(String prefix, int limit);
 
     CommentDto createComment(Long itemId, CommentDto comment, Long userId);
+
+    List<ItemAvailabilityDto> getItemAvailability(Long itemId, LocalDate from, LocalDate to);
 }
\ No newline at end of file
@@ -2,27 +2,35 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.cache.CacheConfig;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.*;
 
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestMatchService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -31,10 +39,20 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_AVAILABILITY_DAYS = 366;
+    private static final int MAX_SEARCH_SIZE = 100;
+    // Глубже from + size поиск не листается: и индекс, и БД держат в памяти все пропущенные результаты
+    private static final int MAX_SEARCH_WINDOW = 10_000;
+    private static final int MAX_SUGGEST_LIMIT = 20;
+
     private final ItemRepository itemRepository;
+    private final ItemLookupService itemLookupService;
     private final UserService userService;
     private final ItemRequestRepository itemRequestRepository;
-    private final BookingRepository bookingRepository;
+    private final ItemRequestMatchService itemRequestMatchService;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemAvailabilityService itemAvailabilityService;
+    private final ItemSearchEngine itemSearchEngine;
     private final CommentRepository commentRepository;
     private final UserMapper userMapper;
     private final ItemMapper itemMapper;
@@ -55,20 +73,12 @@ public class ItemServiceImpl implements ItemService {
         Map<Long, List<Comment>> commentsByItem = commentRepository.findAllByItemIds(itemIds)
                 .stream()
                 .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.getSummaries(itemIds);
 
         return items.stream()
                 .map(item -> {
                     ItemOwnerDto itemOwnerDto = itemMapper.toItemOwnerDto(item);
-
-                    Booking lastBooking = bookingRepository.findLastBooking(item.getId());
-                    if (lastBooking != null) {
-                        itemOwnerDto.setLastBooking(bookingMapper.toBookingDto(lastBooking));
-                    }
-
-                    Booking nextBooking = bookingRepository.findNextBooking(item.getId());
-                    if (nextBooking != null) {
-                        itemOwnerDto.setNextBooking(bookingMapper.toBookingDto(nextBooking));
-                    }
+                    setBookings(itemOwnerDto, summaries.get(item.getId()));
 
                     List<Comment> comments = commentsByItem.getOrDefault(item.getId(), Collections.emptyList());
                     itemOwnerDto.setComments(comments.stream()
@@ -82,7 +92,7 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional(readOnly = true)
     public ItemOwnerDto getItemById(Long itemId, Long userId) {
-        Item item = findItemOrThrow(itemId);
+        ItemDto item = itemLookupService.getItem(itemId);
         ItemOwnerDto itemOwnerDto = itemMapper.toItemOwnerDto(item);
 
         List<Comment> comments = commentRepository.findAllByItemId(itemId);
@@ -90,16 +100,8 @@ public class ItemServiceImpl implements ItemService {
                 .map(commentMapper::toCommentDto)
                 .collect(Collectors.toList()));
 
-        if (item.getOwner().getId().equals(userId)) {
-            Booking lastBooking = bookingRepository.findLastBooking(itemId);
-            if (lastBooking != null) {
-                itemOwnerDto.setLastBooking(bookingMapper.toBookingDto(lastBooking));
-            }
-
-            Booking nextBooking = bookingRepository.findNextBooking(itemId);
-            if (nextBooking != null) {
-                itemOwnerDto.setNextBooking(bookingMapper.toBookingDto(nextBooking));
-            }
+        if (item.getOwnerId().equals(userId)) {
+            setBookings(itemOwnerDto, itemBookingSummaryService.getSummaries(List.of(itemId)).get(itemId));
         }
 
         return itemOwnerDto;
@@ -120,10 +122,13 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item createdItem = itemRepository.save(item);
+        itemBookingSummaryService.initialize(List.of(createdItem.getId()));
+        itemRequestMatchService.matchItem(createdItem);
         return itemMapper.toItemDto(createdItem);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.ITEMS, key = "#itemId")
     public ItemDto updateItem(ItemDto itemDto, Long userId, Long itemId) {
         Item item = findItemOrThrow(itemId);
         UserDto ownerDto = userService.getUserById(userId);
@@ -135,29 +140,47 @@ public class ItemServiceImpl implements ItemService {
         Optional.ofNullable(itemDto.getAvailable()).ifPresent(item::setAvailable);
 
         Item updatedItem = itemRepository.save(item);
+        itemRequestMatchService.matchItem(updatedItem);
         return itemMapper.toItemDto(updatedItem);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.ITEMS, key = "#id")
     public void deleteItem(Long id) {
         if (!itemRepository.existsById(id)) {
             throw new NotFoundException(String.format("Предмет с id = %d не найдена", id));
         }
         itemRepository.deleteById(id);
+        itemAvailabilityService.onItemDeleted(id);
         log.info("Предмет с id {} был удален", id);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemDto> searchItemsByText(String text) {
+    public List<ItemDto> searchItemsByText(String text, int from, int size) {
+        if (from < 0 || size <= 0 || size > MAX_SEARCH_SIZE || from > MAX_SEARCH_WINDOW - size) {
+            throw new ValidationException(String.format("Некорректные параметры страницы: from = %d, size = %d",
+                    from, size));
+        }
         if (text == null || text.isEmpty()) {
             return Collections.emptyList();
         }
-        return itemRepository.searchItemsByText(text).stream()
+
+        return itemSearchEngine.search(text, from, size).stream()
                 .map(itemMapper::toItemDto)
                 .toList();
     }
 
+    // В режиме memory подсказки отдаются прямо из памяти, без обращения к БД
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ItemSuggestionDto> suggestItems(String prefix, int limit) {
+        if (limit <= 0 || limit > MAX_SUGGEST_LIMIT) {
+            throw new ValidationException(String.format("Некорректное количество подсказок: %d", limit));
+        }
+        return itemSearchEngine.suggest(prefix, limit);
+    }
+
     @Override
     public CommentDto createComment(Long itemId, CommentDto commentDto, Long userId) {
         Item item = findItemOrThrow(itemId);
@@ -182,6 +205,30 @@ public class ItemServiceImpl implements ItemService {
         return result;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemAvailabilityDto> getItemAvailability(Long itemId, LocalDate from, LocalDate to) {
+        itemLookupService.getItem(itemId);
+
+        if (from.isAfter(to) || from.isBefore(LocalDate.now())) {
+            throw new ValidationException(String.format("Некорректный период. Начало: %s Конец: %s", from, to));
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_AVAILABILITY_DAYS) {
+            throw new ValidationException(String.format("Период не может превышать %d дней", MAX_AVAILABILITY_DAYS));
+        }
+
+        return itemAvailabilityService.getAvailability(itemId, from, to);
+    }
+
+    private void setBookings(ItemOwnerDto itemOwnerDto, ItemBookingSummary summary) {
+        if (summary.getLastBooking() != null) {
+            itemOwnerDto.setLastBooking(bookingMapper.toBookingDto(summary.getLastBooking()));
+        }
+        if (summary.getNextBooking() != null) {
+            itemOwnerDto.setNextBooking(bookingMapper.toBookingDto(summary.getNextBooking()));
+        }
+    }
+
     private Item findItemOrThrow(Long id) {
         return itemRepository.findById(id)
                 .orElseThrow(() -> {
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Страница keyset-выдачи. Без size отдается первая страница размера по умолчанию, а не вся выдача
+public record KeysetPage<T>(List<T> content, String nextCursor) {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Берем на одну запись больше, чтобы понять, есть ли следующая страница
+    public static Limit limit(Integer size) {
+        return Limit.of(pageSize(size) + 1);
+    }
+
+    // rows - результат запроса с limit(size), cursorOf - позиция строки в порядке сортировки
+    public static <T> KeysetPage<T> of(List<T> rows, Integer size, Function<T, KeysetCursor> cursorOf) {
+        int pageSize = pageSize(size);
+        if (rows.size() <= pageSize) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> content = rows.subList(0, pageSize);
+        return new KeysetPage<>(content, cursorOf.apply(content.get(pageSize - 1)).encode());
+    }
+
+    private static int pageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size <= 0) {
+            throw new ValidationException("Размер страницы должен быть положительным");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+}
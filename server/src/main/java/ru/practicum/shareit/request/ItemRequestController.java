@@ -2,9 +2,13 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestMatchDto;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
 import ru.practicum.shareit.request.model.ItemRequestCreate;
+import ru.practicum.shareit.request.service.ItemRequestMatchService;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.util.List;
@@ -15,8 +19,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemRequestController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     private final ItemRequestService itemRequestService;
+    private final ItemRequestMatchService itemRequestMatchService;
 
     @PostMapping
     public ItemRequestDto createItemRequest(@RequestBody ItemRequestCreate itemRequestCreate,
@@ -33,9 +39,24 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getOtherUsersItemRequests(@RequestHeader(USER_ID_HEADER) Long userId) {
+    public ResponseEntity<List<ItemRequestDto>> getOtherUsersItemRequests(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         log.info("[GET] Получение списка запросов, созданных другими пользователями");
-        return itemRequestService.getOtherUsersItemRequests(userId);
+        ItemRequestPageDto page = itemRequestService.getOtherUsersItemRequests(userId, cursor, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getRequests());
+    }
+
+    @GetMapping("/matches")
+    public List<ItemRequestMatchDto> getUserMatches(@RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("[GET] Получение вещей, подошедших к запросам пользователя с ID: {}", userId);
+        return itemRequestMatchService.getUserMatches(userId);
     }
 
     @GetMapping("{requestId}")
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ItemRequestMatchDto {
+    private Long requestId;
+    private ItemDto item;
+    private LocalDateTime created;
+}
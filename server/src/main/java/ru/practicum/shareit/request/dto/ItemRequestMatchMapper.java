@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request.dto;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+
+@Mapper(componentModel = "spring", uses = ItemMapper.class)
+public interface ItemRequestMatchMapper {
+    @Mapping(source = "request.id", target = "requestId")
+    ItemRequestMatchDto toItemRequestMatchDto(ItemRequestMatch itemRequestMatch);
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ItemRequestPageDto {
+    private List<ItemRequestDto> requests;
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+
+import java.util.List;
+
+public interface ItemRequestMatchRepository extends JpaRepository<ItemRequestMatch, Long> {
+    @Query("SELECT m.request.id FROM ItemRequestMatch m WHERE m.item.id = :itemId")
+    List<Long> findRequestIdsByItemId(@Param("itemId") Long itemId);
+
+    @Query("""
+             SELECT m FROM ItemRequestMatch m
+             JOIN FETCH m.item
+             WHERE m.request.requestor.id = :userId
+             ORDER BY m.created DESC, m.id DESC
+             """)
+    List<ItemRequestMatch> findAllByRequestorId(@Param("userId") Long userId);
+}
@@ -1,12 +1,27 @@
 package ru.practicum.shareit.request.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findByRequestorIdOrderByCreatedDesc(Long requestorId);
 
-    List<ItemRequest> findByRequestorIdNotOrderByCreatedDesc(Long requestorId);
-}
\ No newline at end of file
+    @Query("""
+             SELECT r FROM ItemRequest r
+             WHERE r.requestor.id <> :userId
+             AND (r.created < :cursorCreated OR (r.created = :cursorCreated AND r.id < :cursorId))
+             ORDER BY r.created DESC, r.id DESC
+             """)
+    List<ItemRequest> findOtherUsersRequests(@Param("userId") Long userId,
+                                             @Param("cursorCreated") LocalDateTime cursorCreated,
+                                             @Param("cursorId") Long cursorId,
+                                             Limit limit);
+
+    List<ItemRequest> findByIdGreaterThanOrderById(Long id, Limit limit);
+}
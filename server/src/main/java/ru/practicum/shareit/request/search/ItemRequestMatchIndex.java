@@ -0,0 +1,120 @@
+package ru.practicum.shareit.request.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Обратный индекс запросов: термин из описания запроса -> id запросов. Новая вещь прогоняется по индексу,
+// и запрос считается подходящим, если в вещи встретилась хотя бы половина его терминов.
+// Стоимость сопоставления зависит от размера списков по терминам вещи, а не от числа запросов.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemRequestMatchIndex {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "нужна", "нужен", "нужно", "нужны", "ищу", "для", "или", "как", "что", "кто", "чтобы", "можно", "надо",
+            "the", "and", "for", "need", "want", "with", "some");
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> requestTerms = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.lock();
+        try {
+            postings.clear();
+            requestTerms.clear();
+
+            long lastId = 0L;
+            List<ItemRequest> batch;
+            do {
+                batch = itemRequestRepository.findByIdGreaterThanOrderById(lastId, Limit.of(REBUILD_BATCH_SIZE));
+                batch.forEach(this::add);
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            log.info("Индекс запросов построен: {} запросов, {} терминов", requestTerms.size(), postings.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void add(ItemRequest itemRequest) {
+        lock.lock();
+        try {
+            remove(itemRequest.getId());
+
+            Set<String> terms = terms(ItemSearchIndex.tokenize(itemRequest.getDescription()));
+            if (terms.isEmpty()) {
+                return;
+            }
+            requestTerms.put(itemRequest.getId(), terms);
+            terms.forEach(term -> postings.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet())
+                    .add(itemRequest.getId()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(Long requestId) {
+        lock.lock();
+        try {
+            Set<String> terms = requestTerms.remove(requestId);
+            if (terms == null) {
+                return;
+            }
+            terms.forEach(term -> postings.computeIfPresent(term, (key, ids) -> {
+                ids.remove(requestId);
+                return ids.isEmpty() ? null : ids;
+            }));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Возвращает id запросов, подходящих под текст вещи
+    public Set<Long> match(Collection<String> itemTokens) {
+        Map<Long, Integer> hits = new HashMap<>();
+        for (String term : terms(itemTokens)) {
+            Set<Long> requestIds = postings.get(term);
+            if (requestIds != null) {
+                requestIds.forEach(requestId -> hits.merge(requestId, 1, Integer::sum));
+            }
+        }
+
+        Set<Long> matched = new HashSet<>();
+        hits.forEach((requestId, count) -> {
+            Set<String> terms = requestTerms.get(requestId);
+            if (terms != null && count * 2 >= terms.size()) {
+                matched.add(requestId);
+            }
+        });
+        return matched;
+    }
+
+    private Set<String> terms(Collection<String> tokens) {
+        Set<String> terms = new HashSet<>();
+        for (String token : tokens) {
+            if (token.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+}
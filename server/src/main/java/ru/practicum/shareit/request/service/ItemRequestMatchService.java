@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestMatchDto;
+
+import java.util.List;
+
+public interface ItemRequestMatchService {
+    void matchItem(Item item);
+
+    List<ItemRequestMatchDto> getUserMatches(Long userId);
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.dto.ItemRequestMatchDto;
+import ru.practicum.shareit.request.dto.ItemRequestMatchMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestMatch;
+import ru.practicum.shareit.request.repository.ItemRequestMatchRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.search.ItemRequestMatchIndex;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ItemRequestMatchServiceImpl implements ItemRequestMatchService {
+    private static final int MAX_MATCHES_PER_ITEM = 100;
+
+    private final ItemRequestMatchIndex itemRequestMatchIndex;
+    private final ItemRequestMatchRepository itemRequestMatchRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemRequestMatchMapper itemRequestMatchMapper;
+
+    @Override
+    public void matchItem(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+
+        List<String> tokens = new ArrayList<>(ItemSearchIndex.tokenize(item.getName()));
+        tokens.addAll(ItemSearchIndex.tokenize(item.getDescription()));
+        Set<Long> requestIds = itemRequestMatchIndex.match(tokens);
+        if (item.getRequest() != null) {
+            requestIds.remove(item.getRequest().getId());
+        }
+        if (requestIds.isEmpty()) {
+            return;
+        }
+        // Блокировка вещи упорядочивает параллельные сопоставления одной вещи: без нее обе транзакции
+        // не увидели бы совпадений друг друга и вторая нарушила бы UNIQUE (request_id, item_id)
+        itemRepository.findByIdForUpdate(item.getId());
+        itemRequestMatchRepository.findRequestIdsByItemId(item.getId()).forEach(requestIds::remove);
+
+        // Индекс мог устареть после отката транзакции, поэтому запросы перечитываются из БД
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemRequestMatch> matches = itemRequestRepository.findAllById(requestIds).stream()
+                .filter(request -> !request.getRequestor().getId().equals(item.getOwner().getId()))
+                .limit(MAX_MATCHES_PER_ITEM)
+                .map(request -> ItemRequestMatch.builder()
+                        .request(request)
+                        .item(item)
+                        .created(now)
+                        .build())
+                .toList();
+        itemRequestMatchRepository.saveAll(matches);
+        log.info("Предмет с id {} подошел к запросам: {}", item.getId(), matches.stream()
+                .map(ItemRequestMatch::getRequest)
+                .map(ItemRequest::getId)
+                .toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestMatchDto> getUserMatches(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format("Пользователь с id = %d не найден", userId));
+        }
+        return itemRequestMatchRepository.findAllByRequestorId(userId).stream()
+                .map(itemRequestMatchMapper::toItemRequestMatchDto)
+                .toList();
+    }
+}
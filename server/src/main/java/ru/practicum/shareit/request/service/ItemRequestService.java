@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
 import ru.practicum.shareit.request.model.ItemRequestCreate;
 
 import java.util.List;
@@ -10,7 +11,7 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getUserItemRequests(Long userId);
 
-    List<ItemRequestDto> getOtherUsersItemRequests(Long userId);
+    ItemRequestPageDto getOtherUsersItemRequests(Long userId, String cursor, Integer size);
 
     ItemRequestDto getItemRequestById(Long requestId, Long userId);
 }
\ No newline at end of file
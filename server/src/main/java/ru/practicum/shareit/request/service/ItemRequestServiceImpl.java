@@ -4,21 +4,31 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.model.ItemRequestCreate;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.search.ItemRequestMatchIndex;
+import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -26,15 +36,19 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional
 public class ItemRequestServiceImpl implements ItemRequestService {
-    private final UserRepository userRepository;
+    private static final int ITEMS_BATCH_SIZE = 1000;
+
+    private final UserService userService;
     private final ItemRepository itemRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemRequestMatchIndex itemRequestMatchIndex;
     private final ItemRequestMapper itemRequestMapper;
     private final ItemMapper itemMapper;
+    private final UserMapper userMapper;
 
     @Override
     public ItemRequestDto createItemRequest(ItemRequestCreate itemRequestCreate, Long userId) {
-        User requester = findUserOrThrow(userId);
+        User requester = userMapper.toUser(userService.getUserById(userId));
 
         ItemRequest itemRequest = itemRequestMapper.toItemRequest(itemRequestCreate);
 
@@ -42,43 +56,40 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         itemRequest.setCreated(LocalDateTime.now());
 
         ItemRequest createdItemRequest = itemRequestRepository.save(itemRequest);
+        afterCommit(() -> itemRequestMatchIndex.add(createdItemRequest));
         return itemRequestMapper.toItemRequestDto(createdItemRequest);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getUserItemRequests(Long userId) {
-        findUserOrThrow(userId);
+        userService.getUserById(userId);
 
         List<ItemRequest> requests = itemRequestRepository.findByRequestorIdOrderByCreatedDesc(userId);
-
-        return requests.stream()
-                .map(request -> {
-                    ItemRequestDto dto = itemRequestMapper.toItemRequestDto(request);
-                    dto.setItems(getItemsForRequest(request.getId()));
-                    return dto;
-                }).toList();
+        return toItemRequestDtos(requests);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemRequestDto> getOtherUsersItemRequests(Long userId) {
-        findUserOrThrow(userId);
-
-        List<ItemRequest> requests = itemRequestRepository.findByRequestorIdNotOrderByCreatedDesc(userId);
-
-        return requests.stream()
-                .map(request -> {
-                    ItemRequestDto dto = itemRequestMapper.toItemRequestDto(request);
-                    dto.setItems(getItemsForRequest(request.getId()));
-                    return dto;
-                }).toList();
+    public ItemRequestPageDto getOtherUsersItemRequests(Long userId, String cursor, Integer size) {
+        userService.getUserById(userId);
+
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        List<ItemRequest> requests = itemRequestRepository.findOtherUsersRequests(userId, position.position(),
+                position.id(), KeysetPage.limit(size));
+        KeysetPage<ItemRequest> page = KeysetPage.of(requests, size,
+                request -> new KeysetCursor(request.getCreated(), request.getId()));
+
+        return ItemRequestPageDto.builder()
+                .requests(toItemRequestDtos(page.content()))
+                .nextCursor(page.nextCursor())
+                .build();
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemRequestDto getItemRequestById(Long requestId, Long userId) {
-        findUserOrThrow(userId);
+        userService.getUserById(userId);
         ItemRequest itemRequest = findItemRequestOrThrow(requestId);
 
         ItemRequestDto itemRequestDto = itemRequestMapper.toItemRequestDto(itemRequest);
@@ -86,14 +97,6 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return itemRequestDto;
     }
 
-    private User findUserOrThrow(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.error("Пользователь с id {} не найден", userId);
-                    return new NotFoundException(String.format("Пользователь с id = %d не найден", userId));
-                });
-    }
-
     private ItemRequest findItemRequestOrThrow(long requestId) {
         return itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> {
@@ -103,10 +106,46 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 });
     }
 
+    // Вещи для всех запросов загружаются пачками, а не отдельным запросом к БД на каждый запрос
+    private List<ItemRequestDto> toItemRequestDtos(List<ItemRequest> requests) {
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .toList();
+
+        Map<Long, List<ItemDto>> itemsByRequest = new HashMap<>();
+        for (int from = 0; from < requestIds.size(); from += ITEMS_BATCH_SIZE) {
+            List<Long> batch = requestIds.subList(from, Math.min(from + ITEMS_BATCH_SIZE, requestIds.size()));
+            itemRepository.findAllByRequestIdIn(batch).forEach(item -> itemsByRequest
+                    .computeIfAbsent(item.getRequest().getId(), id -> new ArrayList<>())
+                    .add(itemMapper.toItemDto(item)));
+        }
+
+        return requests.stream()
+                .map(request -> {
+                    ItemRequestDto dto = itemRequestMapper.toItemRequestDto(request);
+                    dto.setItems(itemsByRequest.getOrDefault(request.getId(), new ArrayList<>()));
+                    return dto;
+                }).toList();
+    }
+
     private List<ItemDto> getItemsForRequest(Long requestId) {
         List<Item> items = itemRepository.findAllByRequestId(requestId);
         return items.stream()
                 .map(itemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    // Откаченный запрос не должен попасть в индекс совпадений
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
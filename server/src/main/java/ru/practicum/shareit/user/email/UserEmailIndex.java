@@ -0,0 +1,180 @@
+package ru.practicum.shareit.user.email;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+// Фильтр Блума зарегистрированных email. Если фильтр отвечает "точно нет", проверка уникальности
+// не обращается к БД; окончательно дубликаты отсекает ограничение UNIQUE на users.email.
+// Удалить адрес из фильтра нельзя, поэтому удаления и смены email копятся как устаревшие записи,
+// и фильтр перестраивается, когда ожидаемая доля ложных срабатываний заметно превышает целевую.
+@Slf4j
+@Component
+public class UserEmailIndex implements MeterBinder {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final double MAX_STALE_RATIO = 0.1;
+
+    private final UserRepository userRepository;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock rebuilding = new ReentrantLock();
+    private final AtomicLong staleEntries = new AtomicLong();
+    private final LongAdder skippedProbes = new LongAdder();
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    private volatile BloomFilter filter;
+    private BloomFilter pending;
+
+    public UserEmailIndex(UserRepository userRepository,
+                          @Value("${shareit.email-filter.expected-users:1000000}") long expectedUsers,
+                          @Value("${shareit.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    // Пока фильтр не построен, каждая проверка идет в БД
+    public boolean isRegistered(String email, Predicate<String> database) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(email)) {
+            skippedProbes.increment();
+            return false;
+        }
+        probes.increment();
+        boolean registered = database.test(email);
+        if (current != null && !registered) {
+            falsePositives.increment();
+        }
+        return registered;
+    }
+
+    public void add(String email) {
+        lock.lock();
+        try {
+            if (filter != null) {
+                filter.put(email);
+            }
+            if (pending != null) {
+                pending.put(email);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Прежний адрес остается в фильтре как устаревшая запись
+    public void onEmailChanged(String email) {
+        add(email);
+        staleEntries.incrementAndGet();
+    }
+
+    public void onRemoved() {
+        staleEntries.incrementAndGet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!rebuilding.tryLock()) {
+            return;
+        }
+        try {
+            BloomFilter rebuilt = BloomFilter.create(Math.max(expectedUsers, 2 * userRepository.count()),
+                    falsePositiveRate);
+            lock.lock();
+            try {
+                pending = rebuilt;
+            } finally {
+                lock.unlock();
+            }
+
+            long lastId = 0L;
+            List<User> batch;
+            do {
+                batch = userRepository.findByIdGreaterThanOrderById(lastId, Limit.of(REBUILD_BATCH_SIZE));
+                batch.forEach(user -> rebuilt.put(user.getEmail()));
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            lock.lock();
+            try {
+                filter = rebuilt;
+                pending = null;
+                staleEntries.set(0);
+            } finally {
+                lock.unlock();
+            }
+            log.info("Фильтр email построен: {} адресов, {} КБ", rebuilt.insertions(), rebuilt.memoryBytes() / 1024);
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    // Проверка выполняется на общем планировщике, а сама перестройка читает всю таблицу пользователей,
+    // поэтому уходит в отдельный поток и не задерживает остальные задачи по расписанию
+    @Scheduled(fixedDelayString = "${shareit.email-filter.rebuild-check:60000}")
+    public void rebuildIfDegraded() {
+        BloomFilter current = filter;
+        if (current == null || rebuilding.isLocked()) {
+            return;
+        }
+        if (current.expectedFalsePositiveRate() > 2 * falsePositiveRate
+                || staleEntries.get() > current.insertions() * MAX_STALE_RATIO) {
+            log.info("Фильтр email перестраивается: устаревших записей {}, ожидаемая доля ложных срабатываний {}",
+                    staleEntries.get(), current.expectedFalsePositiveRate());
+            Thread.ofVirtual().name("email-filter-rebuild").start(this::rebuild);
+        }
+    }
+
+    public long staleEntries() {
+        return staleEntries.get();
+    }
+
+    public double expectedFalsePositiveRate() {
+        BloomFilter current = filter;
+        return current == null ? 0 : current.expectedFalsePositiveRate();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.email.filter.memory", this, index -> index.filter == null ? 0 : index.filter.memoryBytes())
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("users.email.filter.entries", this, index -> index.filter == null ? 0 : index.filter.insertions())
+                .register(registry);
+        Gauge.builder("users.email.filter.stale", staleEntries, AtomicLong::get)
+                .register(registry);
+        Gauge.builder("users.email.filter.expected.fpp", this, UserEmailIndex::expectedFalsePositiveRate)
+                .description("Ожидаемая доля ложных срабатываний фильтра")
+                .register(registry);
+        FunctionCounter.builder("users.email.filter.checks", skippedProbes, LongAdder::sum)
+                .description("Проверки email: absent - без запроса к БД, false_positive - фильтр ошибся")
+                .tag("result", "absent")
+                .register(registry);
+        FunctionCounter.builder("users.email.filter.checks", probes, LongAdder::sum)
+                .tag("result", "probed")
+                .register(registry);
+        FunctionCounter.builder("users.email.filter.checks", falsePositives, LongAdder::sum)
+                .tag("result", "false_positive")
+                .register(registry);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.user.email;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.user.model.User;
+
+// Смена email учитывается в UserServiceImpl: в @PostUpdate прежний адрес уже неизвестен,
+// и любое изменение имени считалось бы устаревшей записью фильтра
+@RequiredArgsConstructor
+public class UserEmailListener {
+    private final ObjectProvider<UserEmailIndex> userEmailIndex;
+
+    @PostPersist
+    public void onPersist(User user) {
+        userEmailIndex.ifAvailable(index -> index.add(user.getEmail()));
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        userEmailIndex.ifAvailable(UserEmailIndex::onRemoved);
+    }
+}
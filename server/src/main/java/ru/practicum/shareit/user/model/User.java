@@ -2,6 +2,7 @@ package ru.practicum.shareit.user.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import ru.practicum.shareit.user.email.UserEmailListener;
 
 @Data
 @NoArgsConstructor
@@ -9,9 +10,11 @@ import lombok.*;
 @Builder
 @Entity
 @Table(name = "users")
+@EntityListeners(UserEmailListener.class)
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -2,12 +2,24 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.cache.CacheConfig;
 import ru.practicum.shareit.exception.DuplicateException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.email.UserEmailIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -21,6 +33,12 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final UserRepository userRepository;
+    private final UserEmailIndex userEmailIndex;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemAvailabilityService itemAvailabilityService;
+    private final ObjectProvider<ItemSearchEngine> itemSearchEngine;
 
     @Override
     @Transactional(readOnly = true)
@@ -32,6 +50,7 @@ public class UserServiceImpl implements UserService {
 
     @Transactional(readOnly = true)
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id")
     public UserDto getUserById(Long id) {
         return userMapper.toUserDto(findUserOrThrow(id));
     }
@@ -39,32 +58,54 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto createUser(UserDto userDto) {
         validateEmailUniqueness(userDto.getEmail(), null);
-        User user = userRepository.save(userMapper.toUser(userDto));
+        User user = saveOrThrowDuplicate(userMapper.toUser(userDto));
         log.info("Создан пользователь с id {}", user.getId());
         return userMapper.toUserDto(user);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id")
     public UserDto updateUser(UserDto userDto, Long id) {
         User user = findUserOrThrow(id);
 
         validateEmailUniqueness(userDto.getEmail(), user);
+        String previousEmail = user.getEmail();
 
         Optional.ofNullable(userDto.getEmail()).ifPresent(user::setEmail);
         Optional.ofNullable(userDto.getName()).ifPresent(user::setName);
 
-        User updatedUser = userRepository.save(user);
+        User updatedUser = saveOrThrowDuplicate(user);
+        if (!previousEmail.equals(updatedUser.getEmail())) {
+            userEmailIndex.onEmailChanged(updatedUser.getEmail());
+        }
         log.info("Обновлен пользователь с id {}", id);
 
         return userMapper.toUserDto(updatedUser);
     }
 
+    // Вещи и бронирования пользователя удаляются вместе с ним каскадно, в обход JPA-колбэков, поэтому
+    // вещи убираются из индексов поиска явно, а сводки и календари занятости чужих вещей, которые он
+    // бронировал, пересчитываются
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.ITEMS, allEntries = true)
+    })
     public void deleteUser(Long id) {
         if (!userRepository.existsById(id)) {
             throw new NotFoundException(String.format("Пользователь с id = %d не найден", id));
         }
+        List<Long> ownedItemIds = itemRepository.findIdsByOwnerId(id);
+        List<Long> bookedItemIds = bookingRepository.findBookedItemIds(id);
         userRepository.deleteById(id);
+        // Сводки читают бронирования запросами, которые сами удаление пользователя не сбросят в БД
+        userRepository.flush();
+
+        itemSearchEngine.ifAvailable(engine -> engine.onItemsDeleted(ownedItemIds));
+        bookedItemIds.forEach(itemId -> {
+            itemBookingSummaryService.refresh(itemId);
+            itemAvailabilityService.onBookingReleased(itemId);
+        });
         log.info("Пользователь с id {} был удален", id);
     }
 
@@ -80,10 +121,21 @@ public class UserServiceImpl implements UserService {
         Optional.ofNullable(email)
                 .filter(e -> currentUser == null || !e.equals(currentUser.getEmail()))
                 .ifPresent(e -> {
-                    if (userRepository.existsByEmail(e)) {
+                    if (userEmailIndex.isRegistered(e, userRepository::existsByEmail)) {
                         log.warn("Дублирование email: {}", e);
                         throw new DuplicateException("Пользователь с такой почтой уже существует");
                     }
                 });
     }
+
+    // Фильтр не знает адресов, добавленных другими экземплярами сервера или в обход JPA,
+    // поэтому последнее слово за ограничением UNIQUE
+    private User saveOrThrowDuplicate(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Дублирование email: {}", user.getEmail());
+            throw new DuplicateException("Пользователь с такой почтой уже существует");
+        }
+    }
 }
\ No newline at end of file
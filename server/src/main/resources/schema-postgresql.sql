@@ -0,0 +1,16 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (LOWER(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (LOWER(description) gin_trgm_ops);
+
+-- Проверка пересечения читает одну запись: последнюю действующую бронь вещи, начавшуюся раньше конца периода.
+-- Частичный индекс не содержит отклоненных и отмененных броней, которые иначе пришлось бы пропускать
+CREATE INDEX IF NOT EXISTS idx_bookings_item_active ON bookings (item_id, start_date DESC, id DESC)
+    WHERE status IN ('WAITING', 'APPROVED');
+
+-- Проверка выше опирается на то, что действующие брони одной вещи не пересекаются; ограничение гарантирует это
+-- и для записей в обход сервиса
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+ALTER TABLE bookings ADD CONSTRAINT bookings_active_no_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingMapperImpl;
+import ru.practicum.shareit.booking.model.BookingRequest;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryServiceImpl;
+import ru.practicum.shareit.booking.stream.BookingEventHub;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityServiceImpl;
+import ru.practicum.shareit.user.dto.UserMapperImpl;
+import ru.practicum.shareit.user.email.UserEmailIndex;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Параллельные бронирования должны фиксироваться в разных транзакциях, поэтому общей транзакции теста нет
+@DataJpaTest
+@Import({BookingServiceImpl.class, UserServiceImpl.class, UserEmailIndex.class, BookingMapperImpl.class,
+        UserMapperImpl.class, ItemBookingSummaryServiceImpl.class, ItemAvailabilityServiceImpl.class,
+        BookingEventHub.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BookingConcurrencyTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User firstBooker;
+    private User secondBooker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@example.com"));
+        firstBooker = userRepository.save(new User(null, "First", "first@example.com"));
+        secondBooker = userRepository.save(new User(null, "Second", "second@example.com"));
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Аккумуляторная")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemBookingSummaryRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentOverlappingBookingsShouldBeAcceptedOnlyOnce() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingRequest request = BookingRequest.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusDays(2))
+                .build();
+        CountDownLatch ready = new CountDownLatch(2);
+        CountDownLatch go = new CountDownLatch(1);
+
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            for (User booker : List.of(firstBooker, secondBooker)) {
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await(5, TimeUnit.SECONDS);
+                    return bookingService.createBooking(request, booker.getId());
+                }));
+            }
+            assertTrue(ready.await(5, TimeUnit.SECONDS));
+            go.countDown();
+
+            int accepted = 0;
+            int rejected = 0;
+            for (Future<?> result : results) {
+                try {
+                    result.get(10, TimeUnit.SECONDS);
+                    accepted++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(ValidationException.class, e.getCause());
+                    rejected++;
+                }
+            }
+            assertEquals(1, accepted);
+            assertEquals(1, rejected);
+        }
+        assertEquals(1, bookingRepository.count());
+    }
+}
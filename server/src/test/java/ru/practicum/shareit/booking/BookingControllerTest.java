@@ -7,11 +7,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.model.BookingRequest;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -102,8 +105,8 @@ class BookingControllerTest {
 
     @Test
     void getUserBookingsShouldReturnListOfBookings() throws Exception {
-        when(bookingService.getUserBookings(anyLong(), any(BookingState.class)))
-                .thenReturn(List.of(testBooking));
+        when(bookingService.getUserBookings(anyLong(), any(BookingState.class), any(), any()))
+                .thenReturn(BookingPageDto.builder().bookings(List.of(testBooking)).build());
 
         mockMvc.perform(get("/bookings")
                         .header(USER_ID_HEADER, 1L)
@@ -113,13 +116,13 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id").value(testBooking.getId()));
 
-        verify(bookingService).getUserBookings(anyLong(), any(BookingState.class));
+        verify(bookingService).getUserBookings(anyLong(), any(BookingState.class), any(), any());
     }
 
     @Test
     void getOwnerBookingsShouldReturnListOfBookings() throws Exception {
-        when(bookingService.getOwnerBookings(anyLong(), any(BookingState.class)))
-                .thenReturn(List.of(testBooking));
+        when(bookingService.getOwnerBookings(anyLong(), any(BookingState.class), any(), any()))
+                .thenReturn(BookingPageDto.builder().bookings(List.of(testBooking)).build());
 
         mockMvc.perform(get("/bookings/owner")
                         .header(USER_ID_HEADER, 1L)
@@ -129,7 +132,44 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id").value(testBooking.getId()));
 
-        verify(bookingService).getOwnerBookings(anyLong(), any(BookingState.class));
+        verify(bookingService).getOwnerBookings(anyLong(), any(BookingState.class), any(), any());
+    }
+
+    @Test
+    void getUserBookingsShouldReturnNextCursorHeader() throws Exception {
+        when(bookingService.getUserBookings(1L, BookingState.ALL, "cursor", 1))
+                .thenReturn(BookingPageDto.builder().bookings(List.of(testBooking)).nextCursor("next").build());
+
+        mockMvc.perform(get("/bookings")
+                        .header(USER_ID_HEADER, 1L)
+                        .param("cursor", "cursor")
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void streamBookingsShouldOpenEventStream() throws Exception {
+        when(bookingService.subscribe(1L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/bookings/stream")
+                        .header(USER_ID_HEADER, 1L)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(bookingService).subscribe(1L);
+    }
+
+    @Test
+    void streamBookingsForUnknownUserShouldReturnNotFound() throws Exception {
+        when(bookingService.subscribe(99L)).thenThrow(new NotFoundException("Пользователь с id = 99 не найден"));
+
+        mockMvc.perform(get("/bookings/stream")
+                        .header(USER_ID_HEADER, 99L)
+                        .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
     }
 
     @Test
@@ -8,22 +8,37 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapperImpl;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingRequest;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryServiceImpl;
+import ru.practicum.shareit.booking.stream.BookingEventHub;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentMapperImpl;
 import ru.practicum.shareit.item.dto.ItemMapperImpl;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.IndexItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.item.service.ItemAvailabilityServiceImpl;
+import ru.practicum.shareit.item.service.ItemLookupServiceImpl;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.request.dto.ItemRequestMatchMapperImpl;
+import ru.practicum.shareit.request.search.ItemRequestMatchIndex;
+import ru.practicum.shareit.request.service.ItemRequestMatchServiceImpl;
 import ru.practicum.shareit.user.dto.UserMapperImpl;
+import ru.practicum.shareit.user.email.UserEmailIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
@@ -36,8 +51,12 @@ import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
-@Import({BookingServiceImpl.class, UserServiceImpl.class, ItemServiceImpl.class, BookingMapperImpl.class,
-        UserMapperImpl.class, ItemMapperImpl.class, CommentMapperImpl.class})
+@Import({BookingServiceImpl.class, UserServiceImpl.class, UserEmailIndex.class, ItemServiceImpl.class,
+        ItemLookupServiceImpl.class, BookingMapperImpl.class, UserMapperImpl.class, ItemMapperImpl.class,
+        CommentMapperImpl.class,
+        ItemBookingSummaryServiceImpl.class, ItemAvailabilityServiceImpl.class, ItemSearchIndex.class,
+        IndexItemSearchEngine.class, ItemSuggestIndex.class, ItemRequestMatchServiceImpl.class,
+        ItemRequestMatchIndex.class, ItemRequestMatchMapperImpl.class, BookingEventHub.class})
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 class BookingServiceImplTest {
 
@@ -59,6 +78,12 @@ class BookingServiceImplTest {
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    @Autowired
+    private ItemBookingSummaryService itemBookingSummaryService;
+
     private User owner;
     private User booker;
     private Item item;
@@ -105,6 +130,47 @@ class BookingServiceImplTest {
         assertTrue(bookingRepository.existsById(result.getId()));
     }
 
+    @Test
+    void createBookingShouldThrowWhenPeriodOverlapsExistingBooking() {
+        User anotherBooker = userRepository.save(new User(null, "Another", "another@example.com"));
+        BookingRequest request = BookingRequest.builder()
+                .itemId(item.getId())
+                .start(booking.getStart().plusMinutes(30))
+                .end(booking.getEnd().plusHours(1))
+                .build();
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> bookingService.createBooking(request, anotherBooker.getId()));
+
+        assertEquals("Вещь уже забронирована на указанный период", exception.getMessage());
+    }
+
+    @Test
+    void createBookingShouldAllowFreeAndRejectedPeriods() {
+        Booking rejected = bookingRepository.save(
+                Booking.builder()
+                        .start(LocalDateTime.now().plusDays(5))
+                        .end(LocalDateTime.now().plusDays(6))
+                        .item(item)
+                        .booker(booker)
+                        .status(BookingStatus.REJECTED)
+                        .build()
+        );
+        BookingRequest free = BookingRequest.builder()
+                .itemId(item.getId())
+                .start(booking.getEnd().plusMinutes(1))
+                .end(booking.getEnd().plusHours(1))
+                .build();
+        BookingRequest overRejected = BookingRequest.builder()
+                .itemId(item.getId())
+                .start(rejected.getStart())
+                .end(rejected.getEnd())
+                .build();
+
+        assertNotNull(bookingService.createBooking(free, booker.getId()).getId());
+        assertNotNull(bookingService.createBooking(overRejected, booker.getId()).getId());
+    }
+
     @Test
     void getBookingByIdShouldReturnBooking() {
         BookingDto result = bookingService.getBookingById(booking.getId(), booker.getId());
@@ -121,9 +187,53 @@ class BookingServiceImplTest {
         assertEquals(BookingStatus.APPROVED, bookingRepository.findById(booking.getId()).get().getStatus());
     }
 
+    @Test
+    void approveBookingShouldUpdateItemBookingSummary() {
+        bookingService.approveBooking(booking.getId(), owner.getId(), true);
+
+        ItemBookingSummary summary = itemBookingSummaryRepository.findById(item.getId()).orElseThrow();
+        assertNull(summary.getLastBooking());
+        assertEquals(booking.getId(), summary.getNextBooking().getId());
+        assertEquals(booking.getStart(), summary.getRefreshAt());
+    }
+
+    @Test
+    void deleteUserShouldRefreshSummariesOfItemsHeBooked() {
+        bookingService.approveBooking(booking.getId(), owner.getId(), true);
+
+        userService.deleteUser(booker.getId());
+
+        ItemBookingSummary summary = itemBookingSummaryRepository.findById(item.getId()).orElseThrow();
+        assertFalse(bookingRepository.existsById(booking.getId()));
+        assertNull(summary.getNextBooking());
+        assertNull(summary.getNextStart());
+    }
+
+    @Test
+    void refreshStaleShouldRecomputeExpiredSummaries() {
+        booking.setStart(LocalDateTime.now().minusDays(2));
+        booking.setEnd(LocalDateTime.now().minusDays(1));
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(booking);
+        itemBookingSummaryRepository.save(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .nextBooking(booking)
+                .refreshAt(LocalDateTime.now().minusDays(2))
+                .build());
+
+        int refreshed = itemBookingSummaryService.refreshStale();
+
+        ItemBookingSummary summary = itemBookingSummaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(1, refreshed);
+        assertEquals(booking.getId(), summary.getLastBooking().getId());
+        assertNull(summary.getNextBooking());
+        assertNull(summary.getRefreshAt());
+    }
+
     @Test
     void getUserBookingsShouldReturnUserBookings() {
-        List<BookingDto> result = bookingService.getUserBookings(booker.getId(), BookingState.ALL);
+        List<BookingDto> result = bookingService.getUserBookings(booker.getId(), BookingState.ALL, null, null)
+                .getBookings();
 
         assertFalse(result.isEmpty());
         assertEquals(booking.getId(), result.get(0).getId());
@@ -227,6 +337,15 @@ class BookingServiceImplTest {
         assertEquals(BookingStatus.REJECTED, bookingRepository.findById(booking.getId()).get().getStatus());
     }
 
+    @Test
+    void approveBookingShouldThrowWhenAlreadyDecided() {
+        bookingService.approveBooking(booking.getId(), owner.getId(), false);
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.approveBooking(booking.getId(), owner.getId(), true));
+        assertEquals(BookingStatus.REJECTED, bookingRepository.findById(booking.getId()).get().getStatus());
+    }
+
     @Test
     void getUserBookingsShouldReturnCurrentBookings() {
         Booking currentBooking = bookingRepository.save(
@@ -239,7 +358,8 @@ class BookingServiceImplTest {
                         .build()
         );
 
-        List<BookingDto> result = bookingService.getUserBookings(booker.getId(), BookingState.CURRENT);
+        List<BookingDto> result = bookingService.getUserBookings(booker.getId(), BookingState.CURRENT, null, null)
+                .getBookings();
 
         assertEquals(1, result.size());
         assertEquals(currentBooking.getId(), result.get(0).getId());
@@ -250,7 +370,8 @@ class BookingServiceImplTest {
         booking.setStatus(BookingStatus.WAITING);
         bookingRepository.save(booking);
 
-        List<BookingDto> result = bookingService.getUserBookings(booker.getId(), BookingState.WAITING);
+        List<BookingDto> result = bookingService.getUserBookings(booker.getId(), BookingState.WAITING, null, null)
+                .getBookings();
 
         assertEquals(1, result.size());
         assertEquals(booking.getId(), result.get(0).getId());
@@ -268,7 +389,8 @@ class BookingServiceImplTest {
                         .build()
         );
 
-        List<BookingDto> result = bookingService.getUserBookings(booker.getId(), BookingState.PAST);
+        List<BookingDto> result = bookingService.getUserBookings(booker.getId(), BookingState.PAST, null, null)
+                .getBookings();
 
         assertEquals(1, result.size());
         assertEquals(pastBooking.getId(), result.get(0).getId());
@@ -279,7 +401,8 @@ class BookingServiceImplTest {
         booking.setStatus(BookingStatus.REJECTED);
         bookingRepository.save(booking);
 
-        List<BookingDto> result = bookingService.getUserBookings(booker.getId(), BookingState.REJECTED);
+        List<BookingDto> result = bookingService.getUserBookings(booker.getId(), BookingState.REJECTED, null, null)
+                .getBookings();
 
         assertEquals(1, result.size());
         assertEquals(booking.getId(), result.get(0).getId());
@@ -287,7 +410,8 @@ class BookingServiceImplTest {
 
     @Test
     void getUserBookingsShouldReturnFutureBookings() {
-        List<BookingDto> result = bookingService.getUserBookings(booker.getId(), BookingState.FUTURE);
+        List<BookingDto> result = bookingService.getUserBookings(booker.getId(), BookingState.FUTURE, null, null)
+                .getBookings();
 
         assertEquals(1, result.size());
         assertEquals(booking.getId(), result.get(0).getId());
@@ -295,7 +419,8 @@ class BookingServiceImplTest {
 
     @Test
     void getOwnerBookingsShouldReturnOwnerBookings() {
-        List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), BookingState.ALL);
+        List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), BookingState.ALL, null, null)
+                .getBookings();
 
         assertFalse(result.isEmpty());
         assertEquals(booking.getId(), result.get(0).getId());
@@ -313,7 +438,8 @@ class BookingServiceImplTest {
                         .build()
         );
 
-        List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), BookingState.CURRENT);
+        List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), BookingState.CURRENT, null, null)
+                .getBookings();
 
         assertEquals(1, result.size());
         assertEquals(currentBooking.getId(), result.get(0).getId());
@@ -324,7 +450,8 @@ class BookingServiceImplTest {
         booking.setStatus(BookingStatus.WAITING);
         bookingRepository.save(booking);
 
-        List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), BookingState.WAITING);
+        List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), BookingState.WAITING, null, null)
+                .getBookings();
 
         assertEquals(1, result.size());
         assertEquals(booking.getId(), result.get(0).getId());
@@ -342,7 +469,8 @@ class BookingServiceImplTest {
                         .build()
         );
 
-        List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), BookingState.PAST);
+        List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), BookingState.PAST, null, null)
+                .getBookings();
 
         assertEquals(1, result.size());
         assertEquals(pastBooking.getId(), result.get(0).getId());
@@ -353,7 +481,8 @@ class BookingServiceImplTest {
         booking.setStatus(BookingStatus.REJECTED);
         bookingRepository.save(booking);
 
-        List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), BookingState.REJECTED);
+        List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), BookingState.REJECTED, null, null)
+                .getBookings();
 
         assertEquals(1, result.size());
         assertEquals(booking.getId(), result.get(0).getId());
@@ -361,18 +490,67 @@ class BookingServiceImplTest {
 
     @Test
     void getOwnerBookingsShouldReturnFutureBookings() {
-        List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), BookingState.FUTURE);
+        List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), BookingState.FUTURE, null, null)
+                .getBookings();
 
         assertEquals(1, result.size());
         assertEquals(booking.getId(), result.get(0).getId());
     }
 
+    @Test
+    void getUserBookingsShouldPageWithCursor() {
+        Booking laterBooking = bookingRepository.save(
+                Booking.builder()
+                        .start(LocalDateTime.now().plusDays(3))
+                        .end(LocalDateTime.now().plusDays(4))
+                        .item(item)
+                        .booker(booker)
+                        .status(BookingStatus.WAITING)
+                        .build()
+        );
+
+        BookingPageDto firstPage = bookingService.getUserBookings(booker.getId(), BookingState.ALL, null, 1);
+        BookingPageDto secondPage = bookingService.getUserBookings(booker.getId(), BookingState.ALL,
+                firstPage.getNextCursor(), 1);
+
+        assertEquals(List.of(laterBooking.getId()), firstPage.getBookings().stream().map(BookingDto::getId).toList());
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(List.of(booking.getId()), secondPage.getBookings().stream().map(BookingDto::getId).toList());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void getUserBookingsWithoutSizeShouldReturnFirstPageOfDefaultSize() {
+        for (int i = 0; i < 20; i++) {
+            bookingRepository.save(
+                    Booking.builder()
+                            .start(LocalDateTime.now().plusDays(i + 3))
+                            .end(LocalDateTime.now().plusDays(i + 4))
+                            .item(item)
+                            .booker(booker)
+                            .status(BookingStatus.WAITING)
+                            .build()
+            );
+        }
+
+        BookingPageDto page = bookingService.getUserBookings(booker.getId(), BookingState.ALL, null, null);
+
+        assertEquals(20, page.getBookings().size());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void getUserBookingsShouldThrowOnInvalidCursor() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.getUserBookings(booker.getId(), BookingState.ALL, "not a cursor", 1));
+    }
+
     @Test
     void getOwnerBookingsShouldThrowWhenNoItems() {
         User userWithoutItems = userRepository.save(new User(null, "No Items", "noitems@example.com"));
 
         assertThrows(NotFoundException.class,
-                () -> bookingService.getOwnerBookings(userWithoutItems.getId(), BookingState.ALL));
+                () -> bookingService.getOwnerBookings(userWithoutItems.getId(), BookingState.ALL, null, null));
     }
 
     @Test
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.bulk;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.bulk.dto.ImportErrorDto;
+import ru.practicum.shareit.bulk.dto.ImportResultDto;
+import ru.practicum.shareit.bulk.service.BulkImportService;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BulkImportController.class)
+class BulkImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BulkImportService bulkImportService;
+
+    private final ImportResultDto result = ImportResultDto.builder()
+            .imported(1)
+            .failed(1)
+            .errors(List.of(ImportErrorDto.builder().line(2).message("Некорректный JSON").build()))
+            .build();
+
+    @Test
+    void importUsersShouldReturnReport() throws Exception {
+        when(bulkImportService.importUsers(any(InputStream.class))).thenReturn(result);
+
+        mockMvc.perform(post("/users/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Anna\",\"email\":\"anna@example.com\"}\n{\"name\":"
+                                .getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+    }
+
+    @Test
+    void importItemsShouldPassOwnerFromHeader() throws Exception {
+        when(bulkImportService.importItems(any(InputStream.class), eq(1L))).thenReturn(result);
+
+        mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}"))
+                .andExpect(status().isOk());
+
+        verify(bulkImportService).importItems(any(InputStream.class), eq(1L));
+    }
+
+    @Test
+    void importBookingsWithUnknownOwnerShouldReturnNotFound() throws Exception {
+        when(bulkImportService.importBookings(any(InputStream.class), eq(99L)))
+                .thenThrow(new NotFoundException("Пользователь с id = 99 не найден"));
+
+        mockMvc.perform(post("/bookings/import")
+                        .header("X-Sharer-User-Id", 99L)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void importWithJsonContentTypeShouldBeRejected() throws Exception {
+        mockMvc.perform(post("/users/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(bulkImportService);
+    }
+}
@@ -0,0 +1,219 @@
+package ru.practicum.shareit.bulk;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryServiceImpl;
+import ru.practicum.shareit.bulk.dto.ImportErrorDto;
+import ru.practicum.shareit.bulk.dto.ImportResultDto;
+import ru.practicum.shareit.bulk.service.BulkImportService;
+import ru.practicum.shareit.bulk.service.BulkImportServiceImpl;
+import ru.practicum.shareit.bulk.service.NdjsonImporter;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemMapperImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityServiceImpl;
+import ru.practicum.shareit.request.dto.ItemRequestMatchMapperImpl;
+import ru.practicum.shareit.request.search.ItemRequestMatchIndex;
+import ru.practicum.shareit.request.service.ItemRequestMatchServiceImpl;
+import ru.practicum.shareit.user.dto.UserMapperImpl;
+import ru.practicum.shareit.user.email.UserEmailIndex;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Каждая пачка фиксируется в своей транзакции, поэтому тесты выполняются без общей транзакции
+@DataJpaTest
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({BulkImportServiceImpl.class, NdjsonImporter.class, UserServiceImpl.class, UserEmailIndex.class,
+        UserMapperImpl.class, ItemMapperImpl.class, ItemRequestMatchServiceImpl.class, ItemRequestMatchIndex.class,
+        ItemRequestMatchMapperImpl.class, ItemAvailabilityServiceImpl.class, ItemBookingSummaryServiceImpl.class})
+@TestPropertySource(properties = {"shareit.import.chunk-size=2", "shareit.import.max-line-length=200"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BulkImportServiceImplTest {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Owner", "owner@example.com"));
+        booker = userRepository.save(new User(null, "Booker", "booker@example.com"));
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Аккумуляторная")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemBookingSummaryRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importUsersShouldSaveValidRowsAndReportOthersByLine() {
+        ImportResultDto result = bulkImportService.importUsers(ndjson(
+                "{\"name\":\"Anna\",\"email\":\"anna@example.com\"}",
+                "",
+                "{\"name\":\"Boris\",\"email\":\"boris@example.com\"}",
+                "{\"name\":\"Copy\",\"email\":\"owner@example.com\"}",
+                "{\"name\":\"Anna Again\",\"email\":\"anna@example.com\"}",
+                "{\"name\":",
+                "{\"name\":\"\",\"email\":\"not-an-email\"}",
+                "{\"name\":\"Vera\",\"email\":\"vera@example.com\"}"));
+
+        assertEquals(3, result.getImported());
+        assertEquals(4, result.getFailed());
+        assertEquals(List.of(4L, 5L, 6L, 7L), result.getErrors().stream().map(ImportErrorDto::getLine).toList());
+        assertEquals(5, userRepository.count());
+        assertTrue(userRepository.existsByEmail("vera@example.com"));
+    }
+
+    @Test
+    void importUsersShouldRetryChunkRowByRowWhenDatabaseRejectsIt() {
+        ImportResultDto result = bulkImportService.importUsers(ndjson(
+                "{\"name\":\"Anna\",\"email\":\"anna@example.com\"}",
+                "{\"name\":\"" + "Я".repeat(60) + "\",\"email\":\"long@example.com\"}",
+                "{\"name\":\"Boris\",\"email\":\"boris@example.com\"}"));
+
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(2L), result.getErrors().stream().map(ImportErrorDto::getLine).toList());
+        assertTrue(userRepository.existsByEmail("anna@example.com"));
+        assertFalse(userRepository.existsByEmail("long@example.com"));
+    }
+
+    @Test
+    void importUsersShouldRejectTooLongLines() {
+        ImportResultDto result = bulkImportService.importUsers(ndjson(
+                "{\"name\":\"" + "a".repeat(300) + "\",\"email\":\"long@example.com\"}",
+                "{\"name\":\"Anna\",\"email\":\"anna@example.com\"}"));
+
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(1L), result.getErrors().stream().map(ImportErrorDto::getLine).toList());
+        assertTrue(userRepository.existsByEmail("anna@example.com"));
+    }
+
+    @Test
+    void importItemsShouldAssignOwnerFromHeader() {
+        ImportResultDto result = bulkImportService.importItems(ndjson(
+                "{\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":true,\"ownerId\":" + booker.getId() + "}",
+                "{\"name\":\"Лестница\",\"description\":\"Три метра\",\"available\":false}",
+                "{\"name\":\"Без статуса\",\"description\":\"Нет available\"}",
+                "{\"name\":\"Молоток\",\"description\":\"Для запроса\",\"available\":true,\"requestId\":999}"),
+                owner.getId());
+
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(3L, 4L), result.getErrors().stream().map(ImportErrorDto::getLine).toList());
+        assertEquals(3, itemRepository.findAllByOwnerId(owner.getId()).size());
+        assertTrue(itemRepository.findAllByOwnerId(booker.getId()).isEmpty());
+    }
+
+    @Test
+    void importItemsShouldThrowWhenOwnerNotFound() {
+        assertThrows(NotFoundException.class,
+                () -> bulkImportService.importItems(ndjson("{\"name\":\"Пила\"}"), 999L));
+    }
+
+    @Test
+    void importBookingsShouldRejectOverlapsForeignItemsAndOwnBookings() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 10, 0);
+        Item foreignItem = itemRepository.save(Item.builder()
+                .name("Чужая дрель")
+                .description("Не принадлежит владельцу")
+                .available(true)
+                .owner(booker)
+                .build());
+
+        ImportResultDto result = bulkImportService.importBookings(ndjson(
+                booking(item.getId(), booker.getId(), start, start.plusDays(2), "APPROVED"),
+                booking(item.getId(), booker.getId(), start.plusDays(1), start.plusDays(3), null),
+                booking(item.getId(), booker.getId(), start.plusDays(1), start.plusDays(3), "REJECTED"),
+                booking(foreignItem.getId(), owner.getId(), start, start.plusDays(1), null),
+                booking(item.getId(), owner.getId(), start.plusDays(5), start.plusDays(6), null),
+                booking(item.getId(), booker.getId(), start.plusDays(2), start.plusDays(1), null),
+                booking(item.getId(), booker.getId(), start.plusDays(2), start.plusDays(4), null)),
+                owner.getId());
+
+        assertEquals(3, result.getImported());
+        assertEquals(List.of(2L, 4L, 5L, 6L), result.getErrors().stream().map(ImportErrorDto::getLine).toList());
+        List<Booking> bookings = bookingRepository.findAll();
+        assertEquals(3, bookings.size());
+        assertEquals(1, bookings.stream().filter(b -> b.getStatus() == BookingStatus.WAITING).count());
+        assertTrue(itemBookingSummaryRepository.findById(item.getId()).isPresent());
+    }
+
+    @Test
+    void importBookingsShouldCheckOverlapsWithExistingBookings() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 10, 0);
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+
+        ImportResultDto result = bulkImportService.importBookings(ndjson(
+                booking(item.getId(), booker.getId(), start.plusDays(1), start.plusDays(3), null),
+                booking(item.getId(), booker.getId(), start.plusDays(2), start.plusDays(3), null)),
+                owner.getId());
+
+        assertEquals(1, result.getImported());
+        assertEquals(1L, result.getErrors().getFirst().getLine());
+    }
+
+    private static String booking(Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end,
+                                  String status) {
+        return String.format("{\"itemId\":%d,\"bookerId\":%d,\"start\":\"%s\",\"end\":\"%s\"%s}", itemId, bookerId,
+                start, end, status == null ? "" : ",\"status\":\"" + status + "\"");
+    }
+
+    private static InputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryServiceImpl;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemMapperImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemLookupService;
+import ru.practicum.shareit.item.service.ItemAvailabilityServiceImpl;
+import ru.practicum.shareit.item.service.ItemLookupServiceImpl;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserMapperImpl;
+import ru.practicum.shareit.user.email.UserEmailIndex;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Кэш заполняется и вытесняется после фиксации транзакций, поэтому тесты выполняются без общей транзакции
+@DataJpaTest
+@Import({CacheConfig.class, UserServiceImpl.class, UserEmailIndex.class, UserMapperImpl.class,
+        ItemLookupServiceImpl.class, ItemMapperImpl.class, ItemBookingSummaryServiceImpl.class,
+        ItemAvailabilityServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CacheConfigTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemLookupService itemLookupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private User user;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User(null, "Cached User", "cached@example.com"));
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Аккумуляторная")
+                .available(true)
+                .owner(user)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        cacheManager.getCache(CacheConfig.USERS).clear();
+        cacheManager.getCache(CacheConfig.ITEMS).clear();
+    }
+
+    @Test
+    void getUserByIdShouldBeServedFromCache() {
+        userService.getUserById(user.getId());
+        user.setName("Changed Directly");
+        userRepository.save(user);
+
+        UserDto result = userService.getUserById(user.getId());
+
+        assertEquals("Cached User", result.getName());
+        assertNotNull(cacheManager.getCache(CacheConfig.USERS).get(user.getId()));
+    }
+
+    @Test
+    void updateUserShouldEvictCachedUser() {
+        userService.getUserById(user.getId());
+
+        userService.updateUser(UserDto.builder().name("Updated User").build(), user.getId());
+
+        assertEquals("Updated User", userService.getUserById(user.getId()).getName());
+    }
+
+    @Test
+    void deleteUserShouldEvictUserAndItems() {
+        userService.getUserById(user.getId());
+        itemLookupService.getItem(item.getId());
+
+        userService.deleteUser(user.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.getUserById(user.getId()));
+        assertThrows(NotFoundException.class, () -> itemLookupService.getItem(item.getId()));
+    }
+
+    @Test
+    void missingUserShouldNotBeCached() {
+        assertThrows(NotFoundException.class, () -> userService.getUserById(-1L));
+
+        assertNull(cacheManager.getCache(CacheConfig.USERS).get(-1L));
+    }
+
+    @Test
+    void putLoadedBeforeEvictionShouldBeSkipped() {
+        Cache cache = cacheManager.getCache(CacheConfig.USERS);
+        UserDto stale = userService.getUserById(user.getId());
+        cache.clear();
+        assertNull(cache.get(user.getId()));
+
+        // Читающая транзакция промахнулась, обновление вытеснило ключ, затем пришла отложенная запись
+        userService.updateUser(UserDto.builder().name("Updated User").build(), user.getId());
+        cache.put(user.getId(), stale);
+
+        assertNull(cache.get(user.getId()));
+        assertEquals("Updated User", userService.getUserById(user.getId()).getName());
+        assertNotNull(cache.get(user.getId()));
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.DatabaseItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(DatabaseItemSearchEngine.class)
+@TestPropertySource(properties = "shareit.search.mode=database")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class DatabaseItemSearchEngineTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemSearchEngine itemSearchEngine;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Owner", "owner@example.com"));
+    }
+
+    @Test
+    void searchShouldFallBackToLikeQueryOnH2() {
+        Item first = saveItem("Лобзик", "Электрический", true);
+        Item second = saveItem("Пила", "Лобзиковая", true);
+        saveItem("Лобзик ручной", "Сломан", false);
+
+        List<Item> result = itemSearchEngine.search("ЛОБЗИК", 0, 10);
+
+        assertEquals(List.of(second.getId(), first.getId()), result.stream().map(Item::getId).toList());
+    }
+
+    @Test
+    void searchShouldApplyFromAndSize() {
+        Item first = saveItem("Стремянка", "Алюминиевая", true);
+        saveItem("Стремянка большая", "Стальная", true);
+
+        List<Item> result = itemSearchEngine.search("стремянка", 1, 1);
+
+        assertEquals(List.of(first.getId()), result.stream().map(Item::getId).toList());
+    }
+
+    @Test
+    void suggestShouldMatchWordPrefixesOfAvailableNames() {
+        Item screwdriver = saveItem("Шуруповёрт Bosch", "Аккумуляторный", true);
+        Item bag = saveItem("Сумка для шуруповерта", "Тканевая", true);
+        saveItem("Шуруповерт Makita", "Сломан", false);
+
+        assertEquals(List.of(bag.getId(), screwdriver.getId()), itemSearchEngine.suggest("Шуруп", 10).stream()
+                .map(ItemSuggestionDto::getId)
+                .toList());
+        assertEquals(List.of(screwdriver.getId()), itemSearchEngine.suggest("шуруповерт b", 10).stream()
+                .map(ItemSuggestionDto::getId)
+                .toList());
+        assertTrue(itemSearchEngine.suggest("!", 10).isEmpty());
+    }
+
+    private Item saveItem(String name, String description, boolean available) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        item.setOwner(owner);
+        return itemRepository.save(item);
+    }
+}
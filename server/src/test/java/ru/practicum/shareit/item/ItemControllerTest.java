@@ -9,10 +9,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -128,7 +131,7 @@ class ItemControllerTest {
 
     @Test
     void searchItemsByTextShouldReturnListOfItems() throws Exception {
-        when(itemService.searchItemsByText(anyString())).thenReturn(List.of(testItem));
+        when(itemService.searchItemsByText(anyString(), anyInt(), anyInt())).thenReturn(List.of(testItem));
 
         mockMvc.perform(get("/items/search")
                         .param("text", "test")
@@ -137,7 +140,23 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id").value(testItem.getId()));
 
-        verify(itemService).searchItemsByText(anyString());
+        verify(itemService).searchItemsByText(anyString(), eq(0), eq(20));
+    }
+
+    @Test
+    void suggestItemsShouldReturnSuggestions() throws Exception {
+        when(itemService.suggestItems("дре", 5))
+                .thenReturn(List.of(ItemSuggestionDto.builder().id(1L).name("Дрель").build()));
+
+        mockMvc.perform(get("/items/suggest")
+                        .param("prefix", "дре")
+                        .param("limit", "5")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("Дрель"));
+
+        verify(itemService).suggestItems("дре", 5);
     }
 
     @Test
@@ -155,6 +174,23 @@ class ItemControllerTest {
         verify(itemService).createComment(anyLong(), any(CommentDto.class), anyLong());
     }
 
+    @Test
+    void getItemAvailabilityShouldReturnSlots() throws Exception {
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(3);
+        when(itemService.getItemAvailability(1L, from, to))
+                .thenReturn(List.of(ItemAvailabilityDto.builder().start(from).end(to).available(true).build()));
+
+        mockMvc.perform(get("/items/1/availability")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].available").value(true));
+
+        verify(itemService).getItemAvailability(1L, from, to);
+    }
+
     @Test
     void getItemByIdWhenNotFoundShouldReturn404() throws Exception {
         when(itemService.getItemById(anyLong(), anyLong()))
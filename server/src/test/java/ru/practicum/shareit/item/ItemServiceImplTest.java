@@ -1,38 +1,65 @@
 package ru.practicum.shareit.item;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingMapperImpl;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryServiceImpl;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.IndexItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.item.service.ItemAvailabilityServiceImpl;
+import ru.practicum.shareit.item.service.ItemLookupServiceImpl;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.request.dto.ItemRequestMatchDto;
+import ru.practicum.shareit.request.dto.ItemRequestMatchMapperImpl;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.search.ItemRequestMatchIndex;
+import ru.practicum.shareit.request.service.ItemRequestMatchService;
+import ru.practicum.shareit.request.service.ItemRequestMatchServiceImpl;
 import ru.practicum.shareit.user.dto.UserMapperImpl;
+import ru.practicum.shareit.user.email.UserEmailIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
-@Import({ItemServiceImpl.class, UserServiceImpl.class, ItemMapperImpl.class, UserMapperImpl.class,
-        CommentMapperImpl.class, BookingMapperImpl.class})
+@Import({ItemServiceImpl.class, ItemLookupServiceImpl.class, UserServiceImpl.class, UserEmailIndex.class,
+        ItemMapperImpl.class, UserMapperImpl.class, CommentMapperImpl.class, BookingMapperImpl.class,
+        ItemBookingSummaryServiceImpl.class, ItemAvailabilityServiceImpl.class, ItemSearchIndex.class,
+        IndexItemSearchEngine.class, ItemSuggestIndex.class, ItemRequestMatchServiceImpl.class,
+        ItemRequestMatchIndex.class, ItemRequestMatchMapperImpl.class})
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 class ItemServiceImplTest {
 
@@ -45,18 +72,36 @@ class ItemServiceImplTest {
     @Autowired
     private ItemRequestRepository itemRequestRepository;
 
+    @Autowired
+    private ItemRequestMatchService itemRequestMatchService;
+
+    @Autowired
+    private ItemRequestMatchIndex itemRequestMatchIndex;
+
     @Autowired
     private BookingRepository bookingRepository;
 
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private ItemBookingSummaryRepository itemBookingSummaryRepository;
+
     @Autowired
     private ItemService itemService;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     private User savedUser;
     private Item savedItem;
 
@@ -88,6 +133,22 @@ class ItemServiceImplTest {
         assertTrue(itemRepository.existsById(result.getId()));
     }
 
+    @Test
+    void createItemShouldStoreEmptyBookingSummary() {
+        ItemDto itemDto = ItemDto.builder()
+                .name("New Item")
+                .description("New Description")
+                .available(true)
+                .build();
+
+        ItemDto result = itemService.createItem(itemDto, savedUser.getId());
+
+        ItemBookingSummary summary = itemBookingSummaryRepository.findById(result.getId()).orElseThrow();
+        assertNull(summary.getLastBooking());
+        assertNull(summary.getNextBooking());
+        assertNull(summary.getRefreshAt());
+    }
+
     @Test
     void createItemShouldNotSetRequestWhenRequestIdNotProvided() {
         ItemDto itemDto = ItemDto.builder()
@@ -181,21 +242,180 @@ class ItemServiceImplTest {
 
     @Test
     void searchItemsByTextShouldReturnMatchingItems() {
-        List<ItemDto> result = itemService.searchItemsByText("Test");
+        commitIndexChanges();
+        List<ItemDto> result = itemService.searchItemsByText("Test", 0, 10);
 
         assertFalse(result.isEmpty());
         assertEquals(savedItem.getName(), result.get(0).getName());
     }
 
+    @Test
+    void searchItemsByTextShouldMatchTokenPrefixesInAnyCase() {
+        ItemDto drill = itemService.createItem(ItemDto.builder()
+                .name("Дрель аккумуляторная")
+                .description("Ёмкий аккумулятор, два режима")
+                .available(true)
+                .build(), savedUser.getId());
+        commitIndexChanges();
+
+        assertEquals(List.of(drill.getId()), searchIds("дРЕль"));
+        assertEquals(List.of(drill.getId()), searchIds("емкий акку"));
+        assertTrue(itemService.searchItemsByText("дрель отвертка", 0, 10).isEmpty());
+        // Совпадение ищется с начала слова, а не в любом месте строки, как в прежнем LIKE '%text%'
+        assertTrue(searchIds("рель").isEmpty());
+        assertTrue(searchIds("умулятор").isEmpty());
+    }
+
+    @Test
+    void searchItemsByTextShouldSkipUnavailableAndDeletedItems() {
+        ItemDto hidden = itemService.createItem(ItemDto.builder()
+                .name("Hidden saw")
+                .description("Saw")
+                .available(true)
+                .build(), savedUser.getId());
+
+        itemService.updateItem(ItemDto.builder().available(false).build(), savedUser.getId(), hidden.getId());
+        commitIndexChanges();
+        assertTrue(itemService.searchItemsByText("saw", 0, 10).isEmpty());
+
+        itemService.deleteItem(savedItem.getId());
+        commitIndexChanges();
+        assertTrue(itemService.searchItemsByText("test", 0, 10).isEmpty());
+    }
+
+    @Test
+    void searchItemsByTextShouldRankNameMatchesFirstAndPage() {
+        ItemDto inDescription = itemService.createItem(ItemDto.builder()
+                .name("Ящик для инструментов")
+                .description("Подходит для перфоратора")
+                .available(true)
+                .build(), savedUser.getId());
+        ItemDto inName = itemService.createItem(ItemDto.builder()
+                .name("Перфоратор")
+                .description("Ударный, с кейсом")
+                .available(true)
+                .build(), savedUser.getId());
+        commitIndexChanges();
+
+        assertEquals(List.of(inName.getId(), inDescription.getId()), searchIds("перфоратор"));
+        assertEquals(List.of(inDescription.getId()), itemService.searchItemsByText("перфоратор", 1, 1).stream()
+                .map(ItemDto::getId)
+                .toList());
+    }
+
+    @Test
+    void searchIndexesShouldIgnoreRolledBackChanges() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.executeWithoutResult(status -> {
+            User owner = userRepository.save(new User(null, "Rolled Back", "rolled@example.com"));
+            itemRepository.saveAndFlush(Item.builder()
+                    .name("Откаченный лобзик")
+                    .description("Не должен попасть в индекс")
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            status.setRollbackOnly();
+        });
+
+        assertTrue(itemSearchIndex.search("лобзик", 0, 10).isEmpty());
+        assertTrue(itemService.suggestItems("откаченный", 10).isEmpty());
+    }
+
+    @Test
+    void searchItemsByTextShouldThrowWhenPageIsInvalid() {
+        assertThrows(ValidationException.class, () -> itemService.searchItemsByText("test", -1, 10));
+        assertThrows(ValidationException.class, () -> itemService.searchItemsByText("test", 0, 0));
+        assertThrows(ValidationException.class, () -> itemService.searchItemsByText("test", 0, 1000));
+        assertThrows(ValidationException.class, () -> itemService.searchItemsByText("test", Integer.MAX_VALUE, 10));
+        assertThrows(ValidationException.class, () -> itemService.searchItemsByText("test", 9_995, 10));
+    }
+
     @Test
     void searchItemsByTextShouldReturnEmptyListWhenTextIsEmpty() {
-        List<ItemDto> resultEmpty = itemService.searchItemsByText("");
-        List<ItemDto> resultNull = itemService.searchItemsByText(null);
+        List<ItemDto> resultEmpty = itemService.searchItemsByText("", 0, 10);
+        List<ItemDto> resultNull = itemService.searchItemsByText(null, 0, 10);
 
         assertTrue(resultEmpty.isEmpty());
         assertTrue(resultNull.isEmpty());
     }
 
+    @Test
+    void suggestItemsShouldMatchWordPrefixesOfAvailableNames() {
+        ItemDto screwdriver = itemService.createItem(ItemDto.builder()
+                .name("Шуруповерт Bosch")
+                .description("Аккумуляторный")
+                .available(true)
+                .build(), savedUser.getId());
+        ItemDto bag = itemService.createItem(ItemDto.builder()
+                .name("Сумка для шуруповерта")
+                .description("Тканевая")
+                .available(true)
+                .build(), savedUser.getId());
+        itemService.createItem(ItemDto.builder()
+                .name("Шуруповерт Makita")
+                .description("Сломан")
+                .available(false)
+                .build(), savedUser.getId());
+        commitIndexChanges();
+
+        assertEquals(List.of(screwdriver.getId(), bag.getId()), suggestIds("Шуруп"));
+        assertEquals(List.of(screwdriver.getId()), suggestIds("шуруповерт b"));
+
+        itemService.updateItem(ItemDto.builder().available(false).build(), savedUser.getId(), screwdriver.getId());
+        commitIndexChanges();
+
+        assertEquals(List.of(bag.getId()), suggestIds("шуруп"));
+    }
+
+    @Test
+    void searchIndexesShouldForgetItemsDeletedWithOwner() {
+        User owner = userRepository.save(new User(null, "Leaving Owner", "leaving@example.com"));
+        ItemDto jigsaw = itemService.createItem(ItemDto.builder()
+                .name("Лобзик Makita")
+                .description("Электрический")
+                .available(true)
+                .build(), owner.getId());
+        commitIndexChanges();
+        assertEquals(List.of(jigsaw.getId()), suggestIds("лобзик"));
+
+        userService.deleteUser(owner.getId());
+        commitIndexChanges();
+
+        assertTrue(suggestIds("лобзик").isEmpty());
+        assertTrue(itemSearchIndex.search("лобзик", 0, 10).isEmpty());
+    }
+
+    @Test
+    void suggestItemsShouldThrowWhenLimitIsInvalid() {
+        assertThrows(ValidationException.class, () -> itemService.suggestItems("test", 0));
+        assertThrows(ValidationException.class, () -> itemService.suggestItems("test", 100));
+        assertTrue(itemService.suggestItems(" ", 10).isEmpty());
+    }
+
+    @Test
+    void createItemShouldRecordMatchingRequestsOfOtherUsers() {
+        User requestor = userRepository.save(new User(null, "Requestor", "requestor@example.com"));
+        ItemRequest otherRequest = saveRequest("Нужна ударная дрель для ремонта", requestor);
+        saveRequest("Ищу палатку", requestor);
+        saveRequest("Нужна дрель", savedUser);
+
+        ItemDto drill = itemService.createItem(ItemDto.builder()
+                .name("Дрель ударная")
+                .description("Мощная, для бетона")
+                .available(true)
+                .build(), savedUser.getId());
+
+        List<ItemRequestMatchDto> matches = itemRequestMatchService.getUserMatches(requestor.getId());
+        assertEquals(1, matches.size());
+        assertEquals(otherRequest.getId(), matches.get(0).getRequestId());
+        assertEquals(drill.getId(), matches.get(0).getItem().getId());
+        assertTrue(itemRequestMatchService.getUserMatches(savedUser.getId()).isEmpty());
+
+        itemService.updateItem(ItemDto.builder().description("Почти новая").build(), savedUser.getId(), drill.getId());
+        assertEquals(1, itemRequestMatchService.getUserMatches(requestor.getId()).size());
+    }
+
     @Test
     void createCommentShouldSaveAndReturnComment() {
         User booker = userRepository.save(new User(null, "Booker", "booker@example.com"));
@@ -260,4 +480,139 @@ class ItemServiceImplTest {
         assertEquals(pastBooking.getId(), result.getLastBooking().getId());
         assertEquals(futureBooking.getId(), result.getNextBooking().getId());
     }
+
+    @Test
+    void getOwnerItemsShouldNotIssueQueriesPerItem() {
+        User booker = userRepository.save(new User(null, "Booker", "booker@example.com"));
+        bookItem(savedItem, booker);
+
+        long singleItemStatements = countOwnerItemsStatements();
+
+        for (int i = 0; i < 10; i++) {
+            Item item = itemRepository.save(
+                    Item.builder()
+                            .name("Item " + i)
+                            .description("Description " + i)
+                            .available(true)
+                            .owner(savedUser)
+                            .build()
+            );
+            bookItem(item, booker);
+        }
+
+        long manyItemsStatements = countOwnerItemsStatements();
+
+        assertEquals(singleItemStatements, manyItemsStatements);
+    }
+
+    @Test
+    void getOwnerItemsShouldIncludeLastAndNextBookings() {
+        User booker = userRepository.save(new User(null, "Booker", "booker@example.com"));
+        List<Booking> bookings = bookItem(savedItem, booker);
+
+        List<ItemOwnerDto> result = itemService.getOwnerItems(savedUser.getId());
+
+        assertEquals(bookings.get(0).getId(), result.get(0).getLastBooking().getId());
+        assertEquals(bookings.get(1).getId(), result.get(0).getNextBooking().getId());
+    }
+
+    @Test
+    void getItemAvailabilityShouldSplitPeriodIntoFreeAndBusySlots() {
+        User booker = userRepository.save(new User(null, "Booker", "booker@example.com"));
+        LocalDate today = LocalDate.now();
+        bookingRepository.save(
+                Booking.builder()
+                        .start(today.plusDays(2).atTime(10, 0))
+                        .end(today.plusDays(3).atTime(12, 0))
+                        .item(savedItem)
+                        .booker(booker)
+                        .status(BookingStatus.WAITING)
+                        .build()
+        );
+
+        List<ItemAvailabilityDto> result = itemService.getItemAvailability(savedItem.getId(), today,
+                today.plusDays(5));
+
+        assertEquals(3, result.size());
+        assertEquals(today.plusDays(1), result.get(0).getEnd());
+        assertTrue(result.get(0).getAvailable());
+        assertEquals(today.plusDays(2), result.get(1).getStart());
+        assertEquals(today.plusDays(3), result.get(1).getEnd());
+        assertFalse(result.get(1).getAvailable());
+        assertTrue(result.get(2).getAvailable());
+    }
+
+    @Test
+    void getItemAvailabilityShouldThrowWhenPeriodIsInvalid() {
+        LocalDate today = LocalDate.now();
+
+        assertThrows(ValidationException.class,
+                () -> itemService.getItemAvailability(savedItem.getId(), today.plusDays(2), today));
+        assertThrows(ValidationException.class,
+                () -> itemService.getItemAvailability(savedItem.getId(), today, today.plusYears(2)));
+    }
+
+    private ItemRequest saveRequest(String description, User requestor) {
+        ItemRequest request = new ItemRequest();
+        request.setDescription(description);
+        request.setRequestor(requestor);
+        request.setCreated(LocalDateTime.now());
+        ItemRequest savedRequest = itemRequestRepository.save(request);
+        itemRequestMatchIndex.add(savedRequest);
+        return savedRequest;
+    }
+
+    // Тестовая транзакция откатывается, поэтому изменения, ждущие коммита, применяются вручную
+    private void commitIndexChanges() {
+        entityManager.flush();
+        TransactionSynchronizationUtils.triggerAfterCommit();
+    }
+
+    private List<Long> suggestIds(String prefix) {
+        return itemService.suggestItems(prefix, 10).stream()
+                .map(ItemSuggestionDto::getId)
+                .toList();
+    }
+
+    private List<Long> searchIds(String text) {
+        return itemService.searchItemsByText(text, 0, 10).stream()
+                .map(ItemDto::getId)
+                .toList();
+    }
+
+    private List<Booking> bookItem(Item item, User booker) {
+        Booking pastBooking = bookingRepository.save(
+                Booking.builder()
+                        .start(LocalDateTime.now().minusDays(2))
+                        .end(LocalDateTime.now().minusDays(1))
+                        .item(item)
+                        .booker(booker)
+                        .status(BookingStatus.APPROVED)
+                        .build()
+        );
+        Booking futureBooking = bookingRepository.save(
+                Booking.builder()
+                        .start(LocalDateTime.now().plusDays(1))
+                        .end(LocalDateTime.now().plusDays(2))
+                        .item(item)
+                        .booker(booker)
+                        .status(BookingStatus.APPROVED)
+                        .build()
+        );
+        return List.of(pastBooking, futureBooking);
+    }
+
+    private long countOwnerItemsStatements() {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        itemService.getOwnerItems(savedUser.getId());
+
+        return statistics.getPrepareStatementCount();
+    }
 }
\ No newline at end of file
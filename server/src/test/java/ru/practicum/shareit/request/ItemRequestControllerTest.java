@@ -8,8 +8,12 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestMatchDto;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
 import ru.practicum.shareit.request.model.ItemRequestCreate;
+import ru.practicum.shareit.request.service.ItemRequestMatchService;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.time.LocalDateTime;
@@ -31,6 +35,9 @@ class ItemRequestControllerTest {
     @MockBean
     private ItemRequestService itemRequestService;
 
+    @MockBean
+    private ItemRequestMatchService itemRequestMatchService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -78,8 +85,8 @@ class ItemRequestControllerTest {
 
     @Test
     void getOtherUsersItemRequestsShouldReturnListOfRequests() throws Exception {
-        when(itemRequestService.getOtherUsersItemRequests(anyLong()))
-                .thenReturn(List.of(testRequest));
+        when(itemRequestService.getOtherUsersItemRequests(anyLong(), any(), any()))
+                .thenReturn(ItemRequestPageDto.builder().requests(List.of(testRequest)).build());
 
         mockMvc.perform(get("/requests/all")
                         .header(USER_ID_HEADER, 1L)
@@ -89,7 +96,39 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$[0].id").value(testRequest.getId()))
                 .andExpect(jsonPath("$[0].description").value(testRequest.getDescription()));
 
-        verify(itemRequestService).getOtherUsersItemRequests(anyLong());
+        verify(itemRequestService).getOtherUsersItemRequests(anyLong(), any(), any());
+    }
+
+    @Test
+    void getOtherUsersItemRequestsShouldReturnNextCursorHeader() throws Exception {
+        when(itemRequestService.getOtherUsersItemRequests(1L, "cursor", 1))
+                .thenReturn(ItemRequestPageDto.builder().requests(List.of(testRequest)).nextCursor("next").build());
+
+        mockMvc.perform(get("/requests/all")
+                        .header(USER_ID_HEADER, 1L)
+                        .param("cursor", "cursor")
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void getUserMatchesShouldReturnMatchedItems() throws Exception {
+        when(itemRequestMatchService.getUserMatches(1L))
+                .thenReturn(List.of(ItemRequestMatchDto.builder()
+                        .requestId(testRequest.getId())
+                        .item(ItemDto.builder().id(2L).name("Drill").build())
+                        .build()));
+
+        mockMvc.perform(get("/requests/matches")
+                        .header(USER_ID_HEADER, 1L)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].requestId").value(testRequest.getId()))
+                .andExpect(jsonPath("$[0].item.id").value(2L));
     }
 
     @Test
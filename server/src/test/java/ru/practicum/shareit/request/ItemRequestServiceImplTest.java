@@ -1,34 +1,51 @@
 package ru.practicum.shareit.request;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryServiceImpl;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemMapperImpl;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityServiceImpl;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapperImpl;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.model.ItemRequestCreate;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.search.ItemRequestMatchIndex;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.dto.UserMapperImpl;
+import ru.practicum.shareit.user.email.UserEmailIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
-@Import({ItemRequestServiceImpl.class, ItemRequestMapperImpl.class, ItemMapperImpl.class, UserMapperImpl.class})
+@Import({ItemRequestServiceImpl.class, ItemRequestMapperImpl.class, ItemMapperImpl.class, UserMapperImpl.class,
+        ItemRequestMatchIndex.class, UserServiceImpl.class, UserEmailIndex.class, ItemBookingSummaryServiceImpl.class,
+        ItemAvailabilityServiceImpl.class})
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 class ItemRequestServiceImplTest {
 
@@ -44,6 +61,12 @@ class ItemRequestServiceImplTest {
     @Autowired
     private ItemRequestService itemRequestService;
 
+    @Autowired
+    private ItemRequestMatchIndex itemRequestMatchIndex;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     private User testUser;
     private Item testItem;
 
@@ -65,6 +88,18 @@ class ItemRequestServiceImplTest {
         assertTrue(itemRequestRepository.existsById(result.getId()));
     }
 
+    @Test
+    void createItemRequestShouldBeMatchedOnlyAfterCommit() {
+        ItemRequestCreate requestCreate = new ItemRequestCreate();
+        requestCreate.setDescription("Нужен перфоратор");
+
+        ItemRequestDto result = itemRequestService.createItemRequest(requestCreate, testUser.getId());
+        assertTrue(itemRequestMatchIndex.match(List.of("перфоратор")).isEmpty());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertEquals(Set.of(result.getId()), itemRequestMatchIndex.match(List.of("перфоратор")));
+    }
+
     @Test
     void getUserItemRequestsShouldReturnUserRequests() {
         ItemRequest request = new ItemRequest();
@@ -97,7 +132,8 @@ class ItemRequestServiceImplTest {
         anotherRequest.setCreated(LocalDateTime.now());
         itemRequestRepository.save(anotherRequest);
 
-        List<ItemRequestDto> result = itemRequestService.getOtherUsersItemRequests(testUser.getId());
+        List<ItemRequestDto> result = itemRequestService.getOtherUsersItemRequests(testUser.getId(), null, null)
+                .getRequests();
 
         assertEquals(1, result.size());
         assertEquals(anotherRequest.getDescription(), result.get(0).getDescription());
@@ -127,6 +163,98 @@ class ItemRequestServiceImplTest {
         assertEquals(item.getName(), result.getItems().get(0).getName());
     }
 
+    @Test
+    void getOtherUsersItemRequestsShouldPageByCursor() {
+        User anotherUser = userRepository.save(new User(null, "Another User", "another@example.com"));
+        LocalDateTime created = LocalDateTime.now().withNano(0);
+        List<ItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ItemRequest request = new ItemRequest();
+            request.setDescription("Request " + i);
+            request.setRequestor(anotherUser);
+            request.setCreated(i == 0 ? created.minusHours(1) : created);
+            requests.add(itemRequestRepository.save(request));
+        }
+
+        ItemRequestPageDto firstPage = itemRequestService.getOtherUsersItemRequests(testUser.getId(), null, 2);
+        ItemRequestPageDto secondPage = itemRequestService.getOtherUsersItemRequests(testUser.getId(),
+                firstPage.getNextCursor(), 2);
+
+        assertEquals(List.of(requests.get(2).getId(), requests.get(1).getId()),
+                firstPage.getRequests().stream().map(ItemRequestDto::getId).toList());
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(List.of(requests.get(0).getId()),
+                secondPage.getRequests().stream().map(ItemRequestDto::getId).toList());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void getOtherUsersItemRequestsWithInvalidPageShouldThrowException() {
+        assertThrows(ValidationException.class, () ->
+                itemRequestService.getOtherUsersItemRequests(testUser.getId(), "not a cursor", 10));
+        assertThrows(ValidationException.class, () ->
+                itemRequestService.getOtherUsersItemRequests(testUser.getId(), null, 0));
+    }
+
+    @Test
+    void getOtherUsersItemRequestsWithoutSizeShouldReturnFirstPageOfDefaultSize() {
+        User anotherUser = userRepository.save(new User(null, "Another User", "another@example.com"));
+        for (int i = 0; i < 25; i++) {
+            ItemRequest request = new ItemRequest();
+            request.setDescription("Request " + i);
+            request.setRequestor(anotherUser);
+            request.setCreated(LocalDateTime.now());
+            itemRequestRepository.save(request);
+        }
+
+        ItemRequestPageDto page = itemRequestService.getOtherUsersItemRequests(testUser.getId(), null, null);
+
+        assertEquals(20, page.getRequests().size());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 100, 10_000})
+    void getUserItemRequestsShouldLoadItemsInBatches(int requestCount) {
+        User anotherUser = userRepository.save(new User(null, "Another User", "another@example.com"));
+        List<ItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < requestCount; i++) {
+            ItemRequest request = new ItemRequest();
+            request.setDescription("Request " + i);
+            request.setRequestor(testUser);
+            request.setCreated(LocalDateTime.now());
+            requests.add(request);
+        }
+        itemRequestRepository.saveAll(requests);
+
+        List<Item> items = new ArrayList<>();
+        for (ItemRequest request : requests) {
+            Item item = new Item();
+            item.setName("Item for " + request.getDescription());
+            item.setDescription("Description");
+            item.setAvailable(true);
+            item.setOwner(anotherUser);
+            item.setRequest(request);
+            items.add(item);
+        }
+        itemRepository.saveAll(items);
+
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        List<ItemRequestDto> result = itemRequestService.getUserItemRequests(testUser.getId());
+
+        // Пользователь, запросы и по одному запросу вещей на каждую тысячу запросов
+        long expectedStatements = 2 + (requestCount + 999) / 1000;
+        assertEquals(expectedStatements, statistics.getPrepareStatementCount());
+        assertEquals(requestCount, result.size());
+        assertTrue(result.stream().allMatch(request -> request.getItems().size() == 1));
+    }
+
     @Test
     void getItemRequestByIdWhenNotFoundShouldThrowException() {
         assertThrows(NotFoundException.class, () ->
@@ -5,11 +5,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryServiceImpl;
 import ru.practicum.shareit.exception.DuplicateException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.service.ItemAvailabilityServiceImpl;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapperImpl;
+import ru.practicum.shareit.user.email.UserEmailIndex;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
@@ -20,7 +24,8 @@ import java.util.List;
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.*;
 @DataJpaTest
-@Import({UserServiceImpl.class, UserMapperImpl.class})
+@Import({UserServiceImpl.class, UserEmailIndex.class, UserMapperImpl.class, ItemBookingSummaryServiceImpl.class,
+        ItemAvailabilityServiceImpl.class})
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 class UserServiceImplTest {
 
@@ -30,6 +35,12 @@ class UserServiceImplTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserEmailIndex userEmailIndex;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     private User savedUser;
 
     @BeforeEach
@@ -169,4 +180,33 @@ class UserServiceImplTest {
         assertEquals("", result.getName());
         assertEquals(savedUser.getEmail(), result.getEmail());
     }
+
+    @Test
+    void emailFilterShouldSkipDatabaseForUnknownEmail() {
+        assertFalse(userEmailIndex.isRegistered("unknown@example.com",
+                email -> fail("Запрос к БД для адреса, которого нет в фильтре")));
+        assertTrue(userEmailIndex.isRegistered(savedUser.getEmail(), email -> true));
+    }
+
+    @Test
+    void emailFilterShouldCountStaleEntryOnlyWhenEmailChanges() {
+        long staleBefore = userEmailIndex.staleEntries();
+
+        userService.updateUser(new UserDto(null, "Renamed User", null), savedUser.getId());
+        assertEquals(staleBefore, userEmailIndex.staleEntries());
+
+        userService.updateUser(new UserDto(null, null, "changed@example.com"), savedUser.getId());
+        assertEquals(staleBefore + 1, userEmailIndex.staleEntries());
+    }
+
+    @Test
+    void createUserShouldThrowWhenEmailAddedBypassingFilter() {
+        entityManager.getEntityManager()
+                .createNativeQuery("INSERT INTO users (id, name, email) "
+                        + "VALUES (NEXT VALUE FOR users_seq, 'Imported', 'imported@example.com')")
+                .executeUpdate();
+        UserDto userDto = new UserDto(null, "New User", "imported@example.com");
+
+        assertThrows(DuplicateException.class, () -> userService.createUser(userDto));
+    }
 }
\ No newline at end of file